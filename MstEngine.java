@@ -0,0 +1,282 @@
+/*
+Shared minimum spanning tree engine, used by Q3a (devices and modules) and by Q5's Graph.
+
+spanningForest(n, src, dst, cost, strategy) returns the indices of the chosen edges. Three strategies give
+the same total cost:
+
+KRUSKAL: radix sort by cost, then a Union-Find loop that stops after n - 1 unions.
+
+PRIM: adjacency arrays plus an indexed binary heap of vertices keyed by the cheapest edge into the tree,
+restarted from every unvisited vertex so a disconnected graph yields a spanning forest.
+
+BORUVKA: in every round each component picks its cheapest outgoing edge. The edge scan runs as a parallel
+stream on the common ForkJoinPool; per-component minimums live in an AtomicLongArray as
+(cost << 32 | edge index), so ties are broken by edge index and no cycle can form. The picked edges are then
+unioned sequentially, internal edges are dropped, and the next round starts. At most O(log V) rounds.
+
+This file has no dependencies of its own; files that use it compile together with it,
+e.g. javac Q5.java MstEngine.java.
+ */
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+// Minimum spanning forest over vertices 0..n-1; edge e connects src[e] and dst[e] at cost[e]
+public final class MstEngine {
+    public enum Strategy { KRUSKAL, PRIM, BORUVKA }
+
+    // Below this many live edges a Boruvka round scans sequentially
+    static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    private static final long NONE = Long.MAX_VALUE;
+
+    private MstEngine() {
+    }
+
+    // Indices of the edges in a minimum spanning forest, in the order they were chosen
+    public static int[] spanningForest(int n, int[] src, int[] dst, int[] cost, Strategy strategy) {
+        if (src.length != dst.length || src.length != cost.length) {
+            throw new IllegalArgumentException("src, dst and cost must have the same length");
+        }
+        switch (strategy) {
+            case KRUSKAL: return kruskal(n, src, dst, cost);
+            case PRIM: return prim(n, src, dst, cost);
+            case BORUVKA: return boruvka(n, src, dst, cost);
+            default: throw new IllegalArgumentException("Unknown strategy: " + strategy);
+        }
+    }
+
+    private static int[] kruskal(int n, int[] src, int[] dst, int[] cost) {
+        int[] chosen = new int[Math.max(n - 1, 0)];
+        int unions = 0;
+        DisjointSets uf = new DisjointSets(n);
+        for (int e : radixSortByCost(cost, cost.length)) {
+            if (uf.union(src[e], dst[e])) {
+                chosen[unions] = e;
+                if (++unions == n - 1) break;
+            }
+        }
+        return Arrays.copyOf(chosen, unions);
+    }
+
+    private static int[] prim(int n, int[] src, int[] dst, int[] cost) {
+        int m = src.length;
+        // Adjacency in compressed form: the incident edges of v are adj[start[v] .. start[v + 1])
+        int[] start = new int[n + 1];
+        for (int e = 0; e < m; e++) {
+            start[src[e] + 1]++;
+            start[dst[e] + 1]++;
+        }
+        for (int v = 0; v < n; v++) start[v + 1] += start[v];
+        int[] fill = Arrays.copyOf(start, n);
+        int[] adj = new int[2 * m];
+        for (int e = 0; e < m; e++) {
+            adj[fill[src[e]]++] = e;
+            adj[fill[dst[e]]++] = e;
+        }
+
+        long[] key = new long[n]; // Cheapest known edge into the tree, as (cost << 32 | edge)
+        Arrays.fill(key, NONE);
+        boolean[] inTree = new boolean[n];
+        VertexHeap heap = new VertexHeap(n, key);
+        int[] chosen = new int[Math.max(n - 1, 0)];
+        int count = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (inTree[root]) continue;
+            heap.push(root); // Start a new tree of the forest
+            while (!heap.isEmpty()) {
+                int u = heap.pop();
+                inTree[u] = true;
+                if (key[u] != NONE) chosen[count++] = (int) key[u];
+                for (int i = start[u]; i < start[u + 1]; i++) {
+                    int e = adj[i];
+                    int w = src[e] == u ? dst[e] : src[e];
+                    long k = pack(cost[e], e);
+                    if (!inTree[w] && k < key[w]) {
+                        key[w] = k;
+                        heap.pushOrDecrease(w);
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(chosen, count);
+    }
+
+    private static int[] boruvka(int n, int[] src, int[] dst, int[] cost) {
+        DisjointSets uf = new DisjointSets(n);
+        int[] comp = new int[n];
+        AtomicLongArray best = new AtomicLongArray(n);
+        int[] chosen = new int[Math.max(n - 1, 0)];
+        int count = 0;
+        int[] live = new int[src.length];
+        for (int e = 0; e < live.length; e++) live[e] = e;
+
+        while (count < n - 1) {
+            for (int v = 0; v < n; v++) {
+                comp[v] = uf.find(v); // Relabel sequentially; find is not thread-safe
+                best.set(v, NONE);
+            }
+            // Drop edges inside a component, then record each component's cheapest outgoing edge
+            live = edgeStream(live).filter(e -> comp[src[e]] != comp[dst[e]]).toArray();
+            if (live.length == 0) break;
+            edgeStream(live).forEach(e -> {
+                long k = pack(cost[e], e);
+                best.accumulateAndGet(comp[src[e]], k, Math::min);
+                best.accumulateAndGet(comp[dst[e]], k, Math::min);
+            });
+
+            for (int v = 0; v < n; v++) {
+                long k = best.get(v);
+                if (k == NONE) continue;
+                int e = (int) k;
+                if (uf.union(src[e], dst[e])) chosen[count++] = e; // Two components may pick the same edge
+            }
+        }
+        return Arrays.copyOf(chosen, count);
+    }
+
+    private static IntStream edgeStream(int[] edges) {
+        IntStream s = IntStream.of(edges);
+        return edges.length >= PARALLEL_THRESHOLD ? s.parallel() : s;
+    }
+
+    // Orders edges by cost, then by index, so every edge has a distinct key
+    private static long pack(int cost, int e) {
+        return ((long) cost << 32) | e;
+    }
+
+    // Binary min-heap of vertices ordered by key[], with the position of each vertex for decrease-key
+    private static final class VertexHeap {
+        private final int[] heap;
+        private final int[] pos; // Index of each vertex in heap, or -1 when absent
+        private final long[] key;
+        private int size;
+
+        VertexHeap(int n, long[] key) {
+            this.heap = new int[n];
+            this.pos = new int[n];
+            this.key = key;
+            Arrays.fill(pos, -1);
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void push(int v) {
+            heap[size] = v;
+            pos[v] = size;
+            siftUp(size++);
+        }
+
+        void pushOrDecrease(int v) {
+            if (pos[v] < 0) push(v);
+            else siftUp(pos[v]);
+        }
+
+        int pop() {
+            int top = heap[0];
+            pos[top] = -1;
+            if (--size > 0) {
+                heap[0] = heap[size];
+                pos[heap[0]] = 0;
+                siftDown(0);
+            }
+            return top;
+        }
+
+        private void siftUp(int i) {
+            int v = heap[i];
+            while (i > 0) {
+                int p = (i - 1) >>> 1;
+                if (key[heap[p]] <= key[v]) break;
+                heap[i] = heap[p];
+                pos[heap[i]] = i;
+                i = p;
+            }
+            heap[i] = v;
+            pos[v] = i;
+        }
+
+        private void siftDown(int i) {
+            int v = heap[i];
+            while (true) {
+                int c = 2 * i + 1;
+                if (c >= size) break;
+                if (c + 1 < size && key[heap[c + 1]] < key[heap[c]]) c++;
+                if (key[v] <= key[heap[c]]) break;
+                heap[i] = heap[c];
+                pos[heap[i]] = i;
+                i = c;
+            }
+            heap[i] = v;
+            pos[v] = i;
+        }
+    }
+
+    // Indices 0..m-1 sorted by cost (stable), using an LSD radix sort over the 4 bytes of each cost
+    static int[] radixSortByCost(int[] cost) {
+        return radixSortByCost(cost, cost.length);
+    }
+
+    // Same, for the first m costs only
+    static int[] radixSortByCost(int[] cost, int m) {
+        int[] order = new int[m], next = new int[m];
+        for (int e = 0; e < m; e++) order[e] = e;
+
+        int[] counts = new int[257];
+        for (int shift = 0; shift < 32; shift += 8) {
+            Arrays.fill(counts, 0);
+            for (int e = 0; e < m; e++) {
+                counts[digit(cost[e], shift) + 1]++; // Histogram of this byte
+            }
+            for (int d = 0; d < 256; d++) {
+                counts[d + 1] += counts[d]; // Start position of every byte value
+            }
+            for (int e : order) {
+                next[counts[digit(cost[e], shift)]++] = e; // Stable scatter by this byte
+            }
+            int[] t = order;
+            order = next;
+            next = t;
+        }
+        return order;
+    }
+
+    // Byte of the cost at 'shift', with the sign bit flipped so negative costs sort first
+    private static int digit(int cost, int shift) {
+        return ((cost ^ Integer.MIN_VALUE) >>> shift) & 0xFF;
+    }
+
+    // Union-Find over 0..n-1 in one int array: parent, or minus the set size at a root
+    private static final class DisjointSets {
+        private final int[] parent;
+
+        DisjointSets(int n) {
+            parent = new int[n];
+            Arrays.fill(parent, -1);
+        }
+
+        int find(int u) {
+            while (parent[u] >= 0) { // Path halving, no recursion
+                if (parent[parent[u]] >= 0) parent[u] = parent[parent[u]];
+                u = parent[u];
+            }
+            return u;
+        }
+
+        boolean union(int u, int v) {
+            int a = find(u), b = find(v);
+            if (a == b) return false;
+            if (parent[a] > parent[b]) { // Attach the smaller set under the larger one
+                int t = a;
+                a = b;
+                b = t;
+            }
+            parent[a] += parent[b];
+            parent[b] = a;
+            return true;
+        }
+    }
+}
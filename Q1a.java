@@ -31,7 +31,59 @@ Complexity:
 Time: O(k * moves)
 
 Space: O(k * n)
+
+Large n:
+
+The table above needs O(k * n) memory, so it cannot be used for n around 10^9 or more.
+
+Rolling engine: keep only one column dp[0..k] of longs and update it in place for each move,
+going from i = k down to 1 so that dp[i-1] still holds the previous column.
+
+Binomial engine: dp[k][m] has the closed form sum C(m, i) for i = 1..k, so we binary search
+the smallest m with that sum >= n. The sum is capped at Long.MAX_VALUE as soon as it gets there.
+
+With more than 63 samples the answer is always the plain binary search count, so k is capped at 63.
+
+Time: O(k * moves) for the rolling engine, O(k * log n) for the binomial engine.
+
+Space: O(k) for both, independent of n.
+
+Batch queries:
+
+Every (k, n) query reads the same dp column, only at a different move count. So we sort the queries
+by (k, n), advance one shared column once, and answer each query the first time dp[k] >= n.
+Queries with n above ROLLING_LIMIT are answered by the binomial engine instead, since the frontier
+would have to walk too many moves for them.
+
+Time: O(max(moves) * max(k) + q log q) for q queries.
+
+Capacity table:
+
+For k <= 63 samples, row k of the table stores f(k, m) = levels testable with k samples and m measurements,
+for m = 1, 2, ... until it reaches Long.MAX_VALUE or TABLE_COLUMNS entries. Most rows saturate after a few
+dozen moves, so the whole table is under 100 KB. It is written once to a binary file and later runs
+map it with a MappedByteBuffer, so a query is just a binary search over one row.
+Queries past the end of a (k = 2..7) row fall back to the binomial engine.
+
+File layout (big endian): MAGIC, VERSION, rows, row offsets[rows + 1] as ints, then all f values as longs.
+
+Test plan:
+
+TestPlan walks the same recurrence one measurement at a time instead of building the decision tree.
+With i samples and j measurements left and the threshold somewhere in (low, high], the next level is
+low + dp[i-1][j-1] + 1: if the sample changes there, dp[i-1][j-1] levels are left below it,
+otherwise dp[i][j-1] levels are left above it. Each step costs O(k) for the binomial sum.
  */
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*; // Import the Java utilities package for Arrays class
+
 public class Q1a {
     // Method to find the minimum number of measurements required
     public static int minMeasurements(int k, int n) {
@@ -64,6 +116,346 @@ public class Q1a {
         return moves;
     }
 
+    // More samples than this never help: 63 measurements with 63 samples already cover Long.MAX_VALUE levels
+    static final int MAX_USEFUL_SAMPLES = 63;
+
+    // Up to this many levels the rolling column finishes quickly, above it we switch to the binomial search
+    static final long ROLLING_LIMIT = 1L << 20;
+
+    // Same problem for level counts up to Long.MAX_VALUE, memory does not depend on n
+    public static long minMeasurements(int k, long n) {
+        checkSamples(k);
+        if (n <= 0) return 0; // Nothing to test
+        if (k == 1) return n; // One sample means testing every level one by one
+
+        // Small n: walking the column is cheap, large n: search on the number of moves instead
+        return n <= ROLLING_LIMIT ? minMeasurementsRolling(k, n) : minMeasurementsBinomial(k, n);
+    }
+
+    // Rolling-array engine: one column of the DP table, updated once per measurement
+    public static long minMeasurementsRolling(int k, long n) {
+        checkSamples(k);
+        if (n <= 0) return 0;
+        if (k == 1) return n;
+        k = Math.min(k, MAX_USEFUL_SAMPLES);
+
+        // dp[i] = levels testable with 'i' samples and the current number of measurements
+        long[] dp = new long[k + 1];
+        long moves = 0;
+
+        while (dp[k] < n) {
+            moves++;
+            // Go downwards so dp[i - 1] still holds the value from the previous measurement
+            for (int i = k; i >= 1; i--) {
+                dp[i] = saturatingAdd(1 + dp[i - 1], dp[i]);
+            }
+        }
+        return moves;
+    }
+
+    // Binomial engine: binary search the smallest 'moves' with levelsTestable(k, moves) >= n
+    public static long minMeasurementsBinomial(int k, long n) {
+        checkSamples(k);
+        if (n <= 0) return 0;
+        if (k == 1) return n;
+        k = Math.min(k, MAX_USEFUL_SAMPLES);
+
+        // With n measurements we can always test n levels (one sample, one level at a time)
+        long lo = 1, hi = n;
+        while (lo < hi) {
+            long mid = lo + (hi - lo) / 2; // Avoid overflow for huge n
+            if (levelsTestable(k, mid, n) >= n) {
+                hi = mid; // 'mid' measurements are enough
+            } else {
+                lo = mid + 1; // Need more measurements
+            }
+        }
+        return lo;
+    }
+
+    // Without a sample no level can be tested, so every engine rejects k < 1
+    static void checkSamples(int k) {
+        if (k < 1) throw new IllegalArgumentException("At least one sample is needed: " + k);
+    }
+
+    // Answer many (k[q], n[q]) queries with one shared DP frontier instead of one table per query
+    public static long[] minMeasurementsBatch(int[] k, long[] n) {
+        if (k.length != n.length) {
+            throw new IllegalArgumentException("k and n differ in length: " + k.length + " vs " + n.length);
+        }
+        for (int kk : k) checkSamples(kk); // Up front, so a bad query cannot stall the shared frontier
+        int q = k.length;
+        long[] result = new long[q];
+
+        // Queries that need the shared frontier; the rest are answered right away
+        List<Integer> pending = new ArrayList<>();
+        int maxK = 0;
+        for (int i = 0; i < q; i++) {
+            if (n[i] <= 0) {
+                result[i] = 0; // Nothing to test
+            } else if (k[i] == 1) {
+                result[i] = n[i]; // One sample means testing every level one by one
+            } else if (n[i] > ROLLING_LIMIT) {
+                result[i] = minMeasurementsBinomial(k[i], n[i]); // Too many moves for the frontier
+            } else {
+                pending.add(i);
+                maxK = Math.max(maxK, Math.min(k[i], MAX_USEFUL_SAMPLES));
+            }
+        }
+        if (pending.isEmpty()) return result;
+
+        // Sort by (samples, levels) so every sample count has its queries in increasing order of n
+        Integer[] order = pending.toArray(new Integer[0]);
+        Arrays.sort(order, Comparator.<Integer>comparingInt(i -> Math.min(k[i], MAX_USEFUL_SAMPLES))
+                .thenComparingLong(i -> n[i]));
+
+        // Split the sorted queries into groups that share the same sample count
+        int[] groupK = new int[order.length];
+        int[] groupNext = new int[order.length]; // Next unanswered query of each group
+        int[] groupEnd = new int[order.length];
+        int groups = 0;
+        for (int p = 0; p < order.length; p++) {
+            int kk = Math.min(k[order[p]], MAX_USEFUL_SAMPLES);
+            if (groups == 0 || groupK[groups - 1] != kk) {
+                groupK[groups] = kk;
+                groupNext[groups] = p;
+                groups++;
+            }
+            groupEnd[groups - 1] = p + 1;
+        }
+
+        // Advance one column for all queries, exactly like minMeasurementsRolling
+        long[] dp = new long[maxK + 1];
+        long moves = 0;
+        int remaining = order.length;
+        while (remaining > 0) {
+            moves++;
+            for (int i = maxK; i >= 1; i--) {
+                dp[i] = saturatingAdd(1 + dp[i - 1], dp[i]);
+            }
+
+            // Answer every query whose threshold was crossed by this measurement
+            for (int g = 0; g < groups; g++) {
+                while (groupNext[g] < groupEnd[g] && n[order[groupNext[g]]] <= dp[groupK[g]]) {
+                    result[order[groupNext[g]]] = moves;
+                    groupNext[g]++;
+                    remaining--;
+                }
+            }
+        }
+        return result;
+    }
+
+    // Levels testable with k samples and m measurements: sum of C(m, i) for i = 1..k, capped at Long.MAX_VALUE
+    public static long levelsTestable(int k, long m) {
+        return levelsTestable(k, m, Long.MAX_VALUE);
+    }
+
+    // Same sum, but stops as soon as it reaches 'limit' (the caller only needs to know it is big enough)
+    static long levelsTestable(int k, long m, long limit) {
+        long sum = 0;
+        long term = 1; // C(m, 0)
+        for (int i = 1; i <= k && i <= m; i++) {
+            // C(m, i) = C(m, i - 1) * (m - i + 1) / i, divided first so nothing overflows on the way
+            long factor = m - i + 1;
+            long g = gcd(factor, i);
+            long a = factor / g;
+            long b = i / g; // b divides term because it is coprime with a
+            term /= b;
+            if (term > Long.MAX_VALUE / a) return Long.MAX_VALUE; // C(m, i) alone is past the cap
+            term *= a;
+
+            sum = saturatingAdd(sum, term);
+            if (sum >= limit) return sum; // Early exit, we already have enough levels
+        }
+        return sum;
+    }
+
+    // Helper method to add two non-negative longs, sticking at Long.MAX_VALUE instead of wrapping
+    static long saturatingAdd(long a, long b) {
+        long r = a + b;
+        return r < 0 ? Long.MAX_VALUE : r;
+    }
+
+    // Greatest common divisor of two non-negative numbers
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    // Precomputed f(k, m) rows for k = 1..MAX_USEFUL_SAMPLES, either built in memory or mapped from a file
+    static class CapacityTable {
+        static final int MAGIC = 0x51314154; // "Q1AT"
+        static final int VERSION = 1;
+        static final int TABLE_COLUMNS = 1024; // Longest row we store (only k = 2..7 get cut here)
+
+        private final int[] offsets;     // Row k lives at [offsets[k - 1], offsets[k]) in 'values'
+        private final LongBuffer values; // f(k, m) for m = 1, 2, ...; heap or mapped
+
+        private CapacityTable(int[] offsets, LongBuffer values) {
+            this.offsets = offsets;
+            this.values = values;
+        }
+
+        // Build the table in memory from the binomial closed form
+        static CapacityTable build() {
+            int rows = MAX_USEFUL_SAMPLES;
+            int[] offsets = new int[rows + 1];
+            List<Long> all = new ArrayList<>();
+            for (int k = 1; k <= rows; k++) {
+                // k = 1 is the line f(1, m) = m, a single entry is enough because lookups handle it directly
+                for (long m = 1; m <= TABLE_COLUMNS; m++) {
+                    long f = levelsTestable(k, m);
+                    all.add(f);
+                    if (f == Long.MAX_VALUE || k == 1) break; // Row saturated, later columns are all the same
+                }
+                offsets[k] = all.size();
+            }
+
+            LongBuffer values = LongBuffer.allocate(all.size());
+            for (long f : all) values.put(f);
+            values.flip();
+            return new CapacityTable(offsets, values);
+        }
+
+        // Map the table from 'file', building and writing it first if the file is missing or not a table
+        static CapacityTable load(Path file) throws IOException {
+            if (Files.exists(file)) {
+                CapacityTable table = map(file);
+                if (table != null) return table;
+            }
+            build().write(file);
+            return map(file);
+        }
+
+        // Write the table in the layout described at the top of the file
+        void write(Path file) throws IOException {
+            int rows = offsets.length - 1;
+            ByteBuffer buf = ByteBuffer.allocate(12 + 4 * offsets.length + 8 * values.limit());
+            buf.putInt(MAGIC).putInt(VERSION).putInt(rows);
+            for (int offset : offsets) buf.putInt(offset);
+            for (int i = 0; i < values.limit(); i++) buf.putLong(values.get(i));
+            buf.flip();
+
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buf.hasRemaining()) ch.write(buf);
+            }
+        }
+
+        // Map an existing table file, or return null if the header does not match
+        private static CapacityTable map(Path file) throws IOException {
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = ch.size();
+                if (size < 12) return null;
+                // The mapping stays valid after the channel is closed
+                MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                if (buf.getInt() != MAGIC || buf.getInt() != VERSION) return null;
+                int rows = buf.getInt();
+                if (rows != MAX_USEFUL_SAMPLES || size < 12 + 4L * (rows + 1)) return null;
+
+                int[] offsets = new int[rows + 1];
+                for (int i = 0; i <= rows; i++) offsets[i] = buf.getInt();
+                if (size != 12 + 4L * (rows + 1) + 8L * offsets[rows]) return null;
+                return new CapacityTable(offsets, buf.slice().asLongBuffer());
+            }
+        }
+
+        // Levels testable with k samples and m measurements, read from the table where it is stored
+        long capacity(int k, long m) {
+            checkSamples(k);
+            if (m <= 0) return 0;
+            k = Math.min(k, MAX_USEFUL_SAMPLES);
+            int from = offsets[k - 1], to = offsets[k];
+            if (m <= to - from) return values.get(from + (int) m - 1);
+            long last = values.get(to - 1);
+            return last == Long.MAX_VALUE ? last : levelsTestable(k, m); // Past a saturated row or a cut row
+        }
+
+        // Minimum measurements for k samples and n levels: binary search over row k
+        long minMeasurements(int k, long n) {
+            checkSamples(k);
+            if (n <= 0) return 0;
+            if (k == 1) return n;
+            k = Math.min(k, MAX_USEFUL_SAMPLES);
+
+            int from = offsets[k - 1], to = offsets[k];
+            if (values.get(to - 1) < n) return minMeasurementsBinomial(k, n); // Beyond the stored columns
+
+            // First column in the row with f(k, m) >= n
+            int lo = from, hi = to - 1;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (values.get(mid) >= n) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+            return lo - from + 1; // Column index is m - 1
+        }
+    }
+
+    // Adaptive test plan for k samples and n levels, produced one probe at a time
+    static class TestPlan {
+        private int samples;  // Samples still intact
+        private long moves;   // Measurements still allowed
+        private long low;     // Highest level known to be safe (0 = none yet)
+        private long high;    // Highest level the threshold can still be
+        private long pending; // Level handed out by nextProbe() and not yet recorded, 0 if none
+
+        TestPlan(int k, long n) {
+            this.samples = Math.min(k, MAX_USEFUL_SAMPLES);
+            this.moves = minMeasurements(k, n);
+            this.low = 0;
+            this.high = Math.max(n, 0);
+        }
+
+        // True once the threshold is known exactly
+        boolean isDone() {
+            return low == high;
+        }
+
+        // Level to measure next; call record() with the outcome before asking again
+        long nextProbe() {
+            if (isDone()) throw new IllegalStateException("Threshold already found: " + low);
+            if (pending == 0) {
+                // dp[i-1][j-1] levels can still be handled below the probe if the sample changes there
+                long below = samples == 1 ? 0 : levelsTestable(samples - 1, moves - 1);
+                pending = low + Math.min(saturatingAdd(below, 1), high - low);
+            }
+            return pending;
+        }
+
+        // Outcome of the last probe: 'changed' is true when the sample changed (and is used up) at that level
+        void record(boolean changed) {
+            if (pending == 0) throw new IllegalStateException("No probe to record");
+            if (changed) {
+                high = pending - 1; // Threshold is below the probe
+                samples--;
+            } else {
+                low = pending; // Probe level is safe
+            }
+            moves--;
+            pending = 0;
+        }
+
+        // Highest safe level once isDone() is true (0 if every level changes the sample)
+        long result() {
+            if (!isDone()) throw new IllegalStateException("Threshold not found yet");
+            return low;
+        }
+
+        // Measurements still allowed by the plan
+        long movesLeft() {
+            return moves;
+        }
+    }
+
     // Main method to test the function with sample cases
     public static void main(String[] args) {
         int k1 = 1, n1 = 2;
@@ -72,6 +464,35 @@ public class Q1a {
         System.out.println("Minimum measurements for k=" + k2 + ", n=" + n2 + ": " + minMeasurements(k2, n2)); // Output: 3
         int k3 = 3, n3 = 14;
         System.out.println("Minimum measurements for k=" + k3 + ", n=" + n3 + ": " +minMeasurements(k3, n3)); // Output: 4
+
+        // Large level counts that the DP table cannot hold
+        int k4 = 2; long n4 = 1_000_000_000L;
+        System.out.println("Minimum measurements for k=" + k4 + ", n=" + n4 + ": " + minMeasurements(k4, n4)); // Output: 44721
+        int k5 = 10; long n5 = Long.MAX_VALUE;
+        System.out.println("Minimum measurements for k=" + k5 + ", n=" + n5 + ": " + minMeasurements(k5, n5)); // Output: 361
+
+        // Several queries answered with one shared frontier
+        long[] batch = minMeasurementsBatch(new int[]{1, 2, 3, 2}, new long[]{2, 6, 14, 1_000_000_000L});
+        System.out.println("Batch: " + Arrays.toString(batch)); // Output: [2, 3, 4, 44721]
+
+        // Same answers from the capacity table, mapped from a file in the temp directory
+        try {
+            Path file = Path.of(System.getProperty("java.io.tmpdir"), "q1a-capacity.bin");
+            CapacityTable table = CapacityTable.load(file);
+            System.out.println("Table: " + table.minMeasurements(3, 14) + ", " + table.minMeasurements(10, Long.MAX_VALUE)); // Output: 4, 361
+        } catch (IOException e) {
+            System.out.println("Could not load capacity table: " + e.getMessage());
+        }
+
+        // Follow the optimal plan for k=2, n=6 when the highest safe level is 4
+        TestPlan plan = new TestPlan(2, 6);
+        StringBuilder probes = new StringBuilder();
+        while (!plan.isDone()) {
+            long level = plan.nextProbe();
+            probes.append(level).append(' ');
+            plan.record(level > 4); // The sample changes above level 4
+        }
+        System.out.println("Probes: " + probes + "-> safe level " + plan.result()); // Output: Probes: 3 5 4 -> safe level 4
     }
 }
 
@@ -79,4 +500,9 @@ public class Q1a {
 Minimum measurements for k=1, n=2: 2
 Minimum measurements for k=2, n=6: 3
 Minimum measurements for k=3, n=14: 4
+Minimum measurements for k=2, n=1000000000: 44721
+Minimum measurements for k=10, n=9223372036854775807: 361
+Batch: [2, 3, 4, 44721]
+Table: 4, 361
+Probes: 3 5 4 -> safe level 4
  */
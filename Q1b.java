@@ -3,7 +3,8 @@
 
 Approach:
 
-Use binary search on the product range [-a * b, a * b], where a and b are the maximum absolute values in nums1 and nums2.
+Use binary search on the product range [min, max], where min and max are the smallest and largest of the four
+corner products nums1[0 or m-1] * nums2[0 or n-1] (the extremes of x * y over two sorted arrays are always corners).
 
 For each midpoint mid, count how many products are ≤ mid using a helper method.
 
@@ -29,43 +30,180 @@ Complexity:
 Time: O((m + n) * log(max_product))
 
 Space: O(1)
+
+Two-pointer counting:
+
+The binary search above costs O(m log n) per count. Instead, split nums1 into negative, zero and positive
+segments. For x > 0 the valid y form a prefix of nums2 whose length only moves one way as x grows
+(shorter if p >= 0, longer if p < 0), and for x < 0 they form a suffix that also moves one way.
+So each segment is walked in the order where the boundary only moves forward, with one pointer into nums2.
+That makes each count O(m + n) with no allocation. The binary search counter is still available
+through Counter.BINARY_SEARCH to compare results.
+
+Parallel counting:
+
+Each count is independent across elements of nums1, so kthSmallestProductParallel splits nums1 into chunks
+and counts them on the common ForkJoinPool, adding the chunk totals on the way back up.
+Each chunk seeds its pointer with one binary search, so chunks do not rescan nums2 from the start.
+Inputs with at most 'threshold' elements in nums1 are counted on the calling thread.
+
+Shared index:
+
+Q1b keeps no state between calls, so one instance can be used from many threads. For many queries over the
+same arrays, ProductIndex copies them once, stores the sign split points of nums1 and the exact min and max
+product (always one of the four corner products), and then answers kth(k) and rank(value) from any thread.
+It is immutable, so no locking is needed.
+
+Selecting from a small window:
+
+The search keeps count(l - 1) < k <= count(r). Once fewer than max(SELECT_MIN, m + n) products lie in [l, r],
+we stop bisecting, collect exactly those products (one binary search per element of nums1) and quickselect
+the (k - count(l - 1))-th of them. This replaces the last rounds of full count passes with one collection pass.
+
+Streaming the smallest products:
+
+smallestProducts returns an iterator over all products in ascending order. The pairs split into four sign
+quadrants (negative x positive, positive x negative, negative x negative, positive x positive) plus zeros.
+In each quadrant we order both sides by magnitude so the product grows along rows and columns, and walk it
+with a heap of at most min(rows, columns) frontier cells. next() takes the smallest head of the four quadrant
+heaps (or a pending zero), so each product costs O(log min(m, n)) and memory stays O(m + n).
  */
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongUnaryOperator;
 
 public class Q1b {
-    private int[] nums1; // Declare an array to hold the first set of numbers (nums1)
-    private int[] nums2; // Declare an array to hold the second set of numbers (nums2)
+    // Counting routine used by the binary search on the answer
+    enum Counter {
+        BINARY_SEARCH, // Binary search over nums2 for every element of nums1, O(m log n)
+        TWO_POINTER    // Monotone sweeps over the sign segments, O(m + n)
+    }
+
+    // Chunks of nums1 at most this long are counted without forking
+    static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 14;
+
+    // Smallest candidate window the search is willing to collect and quickselect
+    static final int SELECT_MIN = 1 << 10;
 
     // Method to find the kth smallest product of two numbers from nums1 and nums2
     public long kthSmallestProduct(int[] nums1, int[] nums2, long k) {
-        this.nums1 = nums1; // Assign the input array nums1 to the class-level variable
-        this.nums2 = nums2; // Assign the input array nums2 to the class-level variable
-        
+        return kthSmallestProduct(nums1, nums2, k, Counter.TWO_POINTER);
+    }
+
+    // Same as above, with the counting routine chosen by the caller
+    public long kthSmallestProduct(int[] nums1, int[] nums2, long k, Counter counter) {
+        return search(nums1, nums2, k, p -> count(nums1, nums2, p, counter));
+    }
+
+    // Same search, with each count split across the common ForkJoinPool
+    public long kthSmallestProductParallel(int[] nums1, int[] nums2, long k) {
+        return kthSmallestProductParallel(nums1, nums2, k, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    // Parallel search where chunks of nums1 up to 'threshold' elements are counted on one thread
+    public long kthSmallestProductParallel(int[] nums1, int[] nums2, long k, int threshold) {
+        if (threshold < 1) throw new IllegalArgumentException("threshold must be at least 1: " + threshold);
+        return search(nums1, nums2, k, p -> countParallel(nums1, nums2, p, threshold));
+    }
+
+    // Binary search on the answer, using 'count' to get the number of products <= a value
+    private static long search(int[] nums1, int[] nums2, long k, LongUnaryOperator count) {
         int m = nums1.length; // Length of nums1
         int n = nums2.length; // Length of nums2
+        long size = (long) m * n;
+        if (k < 1 || k > size) throw new IllegalArgumentException("k must be in [1, " + size + "]: " + k);
         
-        // Calculate the maximum absolute values of nums1 and nums2
-        int a = Math.max(Math.abs(nums1[0]), Math.abs(nums1[m - 1]));
-        int b = Math.max(Math.abs(nums2[0]), Math.abs(nums2[n - 1]));
+        // The smallest and largest products are among the four corner products
+        long c1 = (long) nums1[0] * nums2[0], c2 = (long) nums1[0] * nums2[n - 1];
+        long c3 = (long) nums1[m - 1] * nums2[0], c4 = (long) nums1[m - 1] * nums2[n - 1];
         
         // Initialize the range [l, r] for binary search based on the product bounds
-        long r = (long) a * b;  // Upper bound for the product
-        long l = (long) -a * b; // Lower bound for the product
+        long r = Math.max(Math.max(c1, c2), Math.max(c3, c4)); // Upper bound for the product
+        long l = Math.min(Math.min(c1, c2), Math.min(c3, c4)); // Lower bound for the product
+        long countBelow = 0;          // Number of products < l
+        long countUpTo = (long) m * n; // Number of products <= r
+        long windowLimit = Math.max(SELECT_MIN, (long) m + n);
         
         // Binary search loop to find the kth smallest product
         while (l < r) {
-            long mid = (l + r) >> 1;  // Compute the middle point (mid) of the current range
-            if (count(mid) >= k) { // If the count of products <= mid is greater than or equal to k
+            if (countUpTo - countBelow <= windowLimit) { // Few enough products left in [l, r] to pick directly
+                return selectInWindow(nums1, nums2, l, r, (int) (k - countBelow - 1), (int) (countUpTo - countBelow));
+            }
+            long mid = (l >> 1) + (r >> 1) + (l & r & 1); // floor((l + r) / 2) without overflow
+            long c = count.applyAsLong(mid);
+            if (c >= k) { // If the count of products <= mid is greater than or equal to k
                 r = mid; // Narrow the search range to the lower half
+                countUpTo = c;
             } else {
                 l = mid + 1; // Narrow the search range to the upper half
+                countBelow = c;
             }
         }
         
         return l; // Return the value of l, which is the kth smallest product
     }
 
+    // Collect the 'size' products in [lo, hi] and return the one at 0-based position 'index' in sorted order
+    private static long selectInWindow(int[] nums1, int[] nums2, long lo, long hi, int index, int size) {
+        long[] window = new long[size];
+        int w = 0;
+        for (int x : nums1) {
+            int from, to; // Range of nums2 whose product with x lies in [lo, hi]
+            if (x > 0) {
+                from = prefixEnd(x, nums2, lo - 1);
+                to = prefixEnd(x, nums2, hi);
+            } else if (x < 0) {
+                from = suffixStart(x, nums2, hi);
+                to = suffixStart(x, nums2, lo - 1);
+            } else {
+                boolean zeroInWindow = lo <= 0 && 0 <= hi;
+                from = 0;
+                to = zeroInWindow ? nums2.length : 0;
+            }
+            for (int j = from; j < to; j++) window[w++] = (long) x * nums2[j];
+        }
+        return quickSelect(window, index);
+    }
+
+    // Element that would be at position 'index' if 'a' were sorted (Hoare partition, middle pivot)
+    static long quickSelect(long[] a, int index) {
+        int lo = 0, hi = a.length - 1;
+        while (lo < hi) {
+            long pivot = a[(lo + hi) >>> 1];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (a[i] < pivot) i++;
+                while (a[j] > pivot) j--;
+                if (i <= j) {
+                    long t = a[i];
+                    a[i] = a[j];
+                    a[j] = t;
+                    i++;
+                    j--;
+                }
+            }
+            // Now a[lo..j] <= pivot <= a[i..hi], anything in between equals the pivot
+            if (index <= j) {
+                hi = j;
+            } else if (index >= i) {
+                lo = i;
+            } else {
+                return a[index];
+            }
+        }
+        return a[index];
+    }
+
+    // Count products <= p with the chosen counting routine
+    private static long count(int[] nums1, int[] nums2, long p, Counter counter) {
+        return counter == Counter.TWO_POINTER ? countTwoPointer(nums1, 0, nums1.length, nums2, p) : count(nums1, nums2, p);
+    }
+
     // Helper method to count how many products are less than or equal to a given value p
-    private long count(long p) {
+    private static long count(int[] nums1, int[] nums2, long p) {
         long cnt = 0; // Variable to hold the count of products less than or equal to p
         int n = nums2.length; // Length of nums2
         
@@ -101,6 +239,278 @@ public class Q1b {
         return cnt; // Return the total count of valid products
     }
 
+    // Count products <= p, forking over chunks of nums1 when it is longer than 'threshold'
+    static long countParallel(int[] nums1, int[] nums2, long p, int threshold) {
+        if (nums1.length <= threshold) return countTwoPointer(nums1, 0, nums1.length, nums2, p);
+        return ForkJoinPool.commonPool().invoke(new CountTask(nums1, 0, nums1.length, nums2, p, threshold));
+    }
+
+    // Fork-join task counting products <= p for nums1[from..to)
+    static class CountTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] a, b;
+        private final int from, to;
+        private final long p;
+        private final int threshold;
+
+        CountTask(int[] a, int from, int to, int[] b, long p, int threshold) {
+            this.a = a;
+            this.from = from;
+            this.to = to;
+            this.b = b;
+            this.p = p;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= threshold) return countTwoPointer(a, from, to, b, p); // Small enough, count directly
+            int mid = (from + to) >>> 1;
+            CountTask left = new CountTask(a, from, mid, b, p, threshold);
+            left.fork(); // Left half runs on another worker
+            long right = new CountTask(a, mid, to, b, p, threshold).compute();
+            return right + left.join();
+        }
+    }
+
+    // Count pairs (a[i], b[j]) with from <= i < to and a[i] * b[j] <= p, both arrays sorted ascending
+    static long countTwoPointer(int[] a, int from, int to, int[] b, long p) {
+        int zeroStart = lowerBound(a, from, to, 0); // First index with a[i] >= 0
+        int posStart = lowerBound(a, zeroStart, to, 1); // First index with a[i] > 0
+        return countTwoPointer(a, from, zeroStart, posStart, to, b, p);
+    }
+
+    // Same count when the sign split points of a[from..to) are already known
+    private static long countTwoPointer(int[] a, int from, int zeroStart, int posStart, int to, int[] b, long p) {
+        int n = b.length;
+        long cnt = 0;
+
+        // Zeros: every product is 0
+        if (p >= 0) cnt += (long) (posStart - zeroStart) * n;
+
+        // Positives: valid y are the prefix b[0..j), j shrinks as x grows when p >= 0 and grows when p < 0
+        int j = 0;
+        if (posStart < to) j = prefixEnd(a[p >= 0 ? posStart : to - 1], b, p); // Seed from the first x walked
+        if (p >= 0) {
+            for (int i = posStart; i < to; i++) {
+                while (j > 0 && (long) a[i] * b[j - 1] > p) j--; // Drop y that are now too large
+                cnt += j;
+            }
+        } else {
+            for (int i = to - 1; i >= posStart; i--) {
+                while (j > 0 && (long) a[i] * b[j - 1] > p) j--;
+                cnt += j;
+            }
+        }
+
+        // Negatives: valid y are the suffix b[j..n), walk x so that j only moves right
+        if (from < zeroStart) j = suffixStart(a[p >= 0 ? zeroStart - 1 : from], b, p);
+        if (p >= 0) {
+            for (int i = zeroStart - 1; i >= from; i--) {
+                while (j < n && (long) a[i] * b[j] > p) j++; // Skip y whose product is still too large
+                cnt += n - j;
+            }
+        } else {
+            for (int i = from; i < zeroStart; i++) {
+                while (j < n && (long) a[i] * b[j] > p) j++;
+                cnt += n - j;
+            }
+        }
+        return cnt;
+    }
+
+    // Number of y in b with x * y <= p, for x > 0 (they form a prefix of b)
+    static int prefixEnd(int x, int[] b, long p) {
+        int l = 0, r = b.length;
+        while (l < r) {
+            int mid = (l + r) >>> 1;
+            if ((long) x * b[mid] > p) {
+                r = mid;
+            } else {
+                l = mid + 1;
+            }
+        }
+        return l;
+    }
+
+    // First index of the suffix of b with x * y <= p, for x < 0
+    static int suffixStart(int x, int[] b, long p) {
+        int l = 0, r = b.length;
+        while (l < r) {
+            int mid = (l + r) >>> 1;
+            if ((long) x * b[mid] <= p) {
+                r = mid;
+            } else {
+                l = mid + 1;
+            }
+        }
+        return l;
+    }
+
+    // First index in a[from..to) with a[i] >= value (to if there is none)
+    static int lowerBound(int[] a, int from, int to, int value) {
+        int l = from, r = to;
+        while (l < r) {
+            int mid = (l + r) >>> 1;
+            if (a[mid] < value) {
+                l = mid + 1;
+            } else {
+                r = mid;
+            }
+        }
+        return l;
+    }
+
+    // Immutable index over two sorted arrays, answering many k-th product and rank queries concurrently
+    static final class ProductIndex {
+        private final int[] nums1, nums2; // Private copies, never written after construction
+        private final int zeroStart;      // First index of nums1 with value >= 0
+        private final int posStart;       // First index of nums1 with value > 0
+        private final long minProduct;    // Smallest product of any pair
+        private final long maxProduct;    // Largest product of any pair
+        private final long size;          // Number of pairs
+
+        ProductIndex(int[] nums1, int[] nums2) {
+            if (nums1.length == 0 || nums2.length == 0) throw new IllegalArgumentException("Both arrays must be non-empty");
+            this.nums1 = nums1.clone();
+            this.nums2 = nums2.clone();
+            int m = nums1.length, n = nums2.length;
+            this.zeroStart = lowerBound(this.nums1, 0, m, 0);
+            this.posStart = lowerBound(this.nums1, zeroStart, m, 1);
+
+            // x * y is linear in each argument, so the extremes are at the corners
+            long c1 = (long) nums1[0] * nums2[0], c2 = (long) nums1[0] * nums2[n - 1];
+            long c3 = (long) nums1[m - 1] * nums2[0], c4 = (long) nums1[m - 1] * nums2[n - 1];
+            this.minProduct = Math.min(Math.min(c1, c2), Math.min(c3, c4));
+            this.maxProduct = Math.max(Math.max(c1, c2), Math.max(c3, c4));
+            this.size = (long) m * n;
+        }
+
+        // Number of pairs whose product is <= value
+        long rank(long value) {
+            if (value < minProduct) return 0;
+            if (value >= maxProduct) return size;
+            return countTwoPointer(nums1, 0, zeroStart, posStart, nums1.length, nums2, value);
+        }
+
+        // k-th smallest product, 1-based
+        long kth(long k) {
+            if (k < 1 || k > size) throw new IllegalArgumentException("k must be in [1, " + size + "]: " + k);
+            return search(nums1, nums2, k, this::rank); // Same bisection and window selection as Q1b
+        }
+
+        // Number of pairs in the index
+        long size() {
+            return size;
+        }
+    }
+
+    // Iterator over every product of nums1 and nums2 in ascending order, both arrays sorted ascending
+    static PrimitiveIterator.OfLong smallestProducts(int[] nums1, int[] nums2) {
+        return new ProductStream(nums1, nums2);
+    }
+
+    // Merges the four sign quadrants and the zero products into one ascending stream
+    static final class ProductStream implements PrimitiveIterator.OfLong {
+        private final Quadrant[] quadrants;
+        private long zerosLeft; // Zero products still to emit
+
+        ProductStream(int[] nums1, int[] nums2) {
+            int m = nums1.length, n = nums2.length;
+            int z1 = lowerBound(nums1, 0, m, 0), p1 = lowerBound(nums1, z1, m, 1); // Sign split points
+            int z2 = lowerBound(nums2, 0, n, 0), p2 = lowerBound(nums2, z2, n, 1);
+            long zeros1 = p1 - z1, zeros2 = p2 - z2;
+            this.zerosLeft = zeros1 * n + zeros2 * m - zeros1 * zeros2;
+
+            // Magnitudes of each sign segment, in both orders
+            long[] neg1Desc = magnitudes(nums1, 0, z1, false), neg1Asc = magnitudes(nums1, 0, z1, true);
+            long[] pos1Asc = magnitudes(nums1, p1, m, false), pos1Desc = magnitudes(nums1, p1, m, true);
+            long[] neg2Desc = magnitudes(nums2, 0, z2, false), neg2Asc = magnitudes(nums2, 0, z2, true);
+            long[] pos2Asc = magnitudes(nums2, p2, n, false), pos2Desc = magnitudes(nums2, p2, n, true);
+
+            this.quadrants = new Quadrant[] {
+                    new Quadrant(neg1Desc, pos2Desc, -1), // Negative products: larger magnitudes first
+                    new Quadrant(pos1Desc, neg2Desc, -1),
+                    new Quadrant(neg1Asc, neg2Asc, 1),    // Positive products: smaller magnitudes first
+                    new Quadrant(pos1Asc, pos2Asc, 1)
+            };
+        }
+
+        // |a[i]| for i in [from, to), reversed if asked
+        private static long[] magnitudes(int[] a, int from, int to, boolean reverse) {
+            long[] out = new long[to - from];
+            for (int i = from; i < to; i++) {
+                out[reverse ? to - 1 - i : i - from] = Math.abs((long) a[i]);
+            }
+            return out;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (zerosLeft > 0) return true;
+            for (Quadrant q : quadrants) {
+                if (q.hasNext()) return true;
+            }
+            return false;
+        }
+
+        @Override
+        public long nextLong() {
+            Quadrant best = null;
+            for (Quadrant q : quadrants) {
+                if (q.hasNext() && (best == null || q.peek() < best.peek())) best = q;
+            }
+            // Zeros go after every negative product and before every positive one
+            if (zerosLeft > 0 && (best == null || best.peek() > 0)) {
+                zerosLeft--;
+                return 0;
+            }
+            if (best == null) throw new NoSuchElementException();
+            return best.next();
+        }
+    }
+
+    // One sign quadrant: sign * rows[i] * cols[j], non-decreasing in both i and j
+    private static final class Quadrant {
+        private final long[] rows, cols;
+        private final int sign;
+        private final PriorityQueue<int[]> heap; // Frontier cells {i, j}, at most one per row
+
+        Quadrant(long[] a, long[] b, int sign) {
+            // The heap holds at most one cell per row, so use the shorter side as rows
+            this.rows = a.length <= b.length ? a : b;
+            this.cols = a.length <= b.length ? b : a;
+            this.sign = sign;
+            this.heap = new PriorityQueue<>((x, y) -> Long.compare(value(x), value(y)));
+            if (rows.length > 0 && cols.length > 0) heap.add(new int[] {0, 0});
+        }
+
+        private long value(int[] cell) {
+            return sign * rows[cell[0]] * cols[cell[1]];
+        }
+
+        boolean hasNext() {
+            return !heap.isEmpty();
+        }
+
+        long peek() {
+            return value(heap.peek());
+        }
+
+        long next() {
+            int[] cell = heap.poll();
+            long v = value(cell);
+            int i = cell[0], j = cell[1];
+            if (j == 0 && i + 1 < rows.length) heap.add(new int[] {i + 1, 0}); // Open the next row
+            if (j + 1 < cols.length) {
+                cell[1]++; // Reuse the array for the next cell in this row
+                heap.add(cell);
+            }
+            return v;
+        }
+    }
+
     // Main method to test the functionality of the kthSmallestProduct method
     public static void main(String[] args) {
         Q1b q1b = new Q1b(); // Create an instance of the Q1b class
@@ -111,6 +521,22 @@ public class Q1b {
         
         // Test Case 2
         System.out.println(q1b.kthSmallestProduct(new int[]{-4, -2, 0, 3}, new int[]{2, 4}, 6)); // Expected output: 0
+
+        // Test Case 2 again with the original binary search counter
+        System.out.println(q1b.kthSmallestProduct(new int[]{-4, -2, 0, 3}, new int[]{2, 4}, 6, Counter.BINARY_SEARCH)); // Expected output: 0
+
+        // Test Case 2 again, counting chunks of one element on the ForkJoinPool
+        System.out.println(q1b.kthSmallestProductParallel(new int[]{-4, -2, 0, 3}, new int[]{2, 4}, 6, 1)); // Expected output: 0
+
+        // Test Case 2 through a shared index: 6th smallest product and how many products are <= -8
+        ProductIndex index = new ProductIndex(new int[]{-4, -2, 0, 3}, new int[]{2, 4});
+        System.out.println(index.kth(6) + " " + index.rank(-8)); // Expected output: 0 3
+
+        // Test Case 2, first 6 products in ascending order
+        PrimitiveIterator.OfLong products = smallestProducts(new int[]{-4, -2, 0, 3}, new int[]{2, 4});
+        StringBuilder first = new StringBuilder();
+        for (int i = 0; i < 6 && products.hasNext(); i++) first.append(products.nextLong()).append(' ');
+        System.out.println(first.toString().trim()); // Expected output: -16 -8 -8 -4 0 0
     }
 }
 
@@ -29,7 +29,57 @@
 
     Time Complexity: O(n) – We traverse the array twice.
     Space Complexity: O(n) – We use an additional array to store rewards.
+
+    Single-pass approach (minRewardsSinglePass):
+
+    Walk the ratings once and only remember the current slope:
+    up   = length of the current strictly increasing run (the last employee gets up + 1 rewards),
+    down = length of the current strictly decreasing run,
+    peak = up value of the employee at the top of the last increasing run.
+    On a step up the new employee gets up + 1. On a step down, every employee of the decreasing run moves up
+    by one, so we add down + 1, except that the peak only needs to grow once down passes its own height.
+    On equal ratings the slope restarts and the employee gets 1.
+    The total is kept as a long, so large inputs cannot overflow it.
+
+    Time Complexity: O(n), one pass.
+    Space Complexity: O(1).
+
+    Streaming approach (minRewardsFromFile / minRewardsFromChannel):
+
+    Because RewardCounter only needs the previous rating and the slope, ratings can be read from a binary
+    file of 4-byte ints in fixed-size chunks and fed to the counter one by one. The slope state simply
+    carries over from one chunk to the next, so the total is the same as minRewards on the whole array.
+    A file is mapped one chunk at a time with FileChannel.map; any other channel is read into one
+    reusable buffer. Memory stays at one chunk however large the input is.
+
+    Parallel approach (minRewardsParallel):
+
+    Call c a valley when ratings[c - 1] >= ratings[c] <= ratings[c + 1]. A valley always gets exactly 1 reward,
+    and no increasing or decreasing run crosses it, so the rewards on each side do not depend on the other side.
+    We split the array at a valley near the middle into [from, c] and [c, to), solve both halves as standalone
+    arrays on the ForkJoinPool and subtract the 1 that the shared valley was counted twice.
+    Ranges without a valley (one long slope) or under the threshold are solved with the single-pass counter.
+
+    Incremental approach (DynamicRewards):
+
+    Each employee's reward is max(left[i], right[i]), where left[i] is the length of the strictly increasing
+    run ending at i and right[i] the length of the strictly decreasing run starting at i.
+    When rating i changes, only left[i..] can change going right and right[..i] going left, and each
+    stops changing at the first position whose value stays the same. So an update recomputes those two
+    runs and adjusts the total by the difference, instead of redoing all n employees.
+    We keep the run lengths in plain arrays rather than a tree of runs: the update cost is already the
+    size of the affected runs, and arrays keep it allocation-free.
  */
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 public class Q2a {
     // Function to calculate the minimum rewards required based on ratings
@@ -76,6 +126,238 @@ public class Q2a {
         return totalRewards; // Return the final result
     }
 
+    // Same result in one pass with O(1) extra space, summed as a long
+    public static long minRewardsSinglePass(int[] ratings) {
+        if (ratings == null || ratings.length == 0) {
+            return 0;
+        }
+        RewardCounter counter = new RewardCounter();
+        for (int rating : ratings) {
+            counter.add(rating);
+        }
+        return counter.total();
+    }
+
+    // Ranges up to this many ratings are solved on one thread
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    // Same result, splitting the array at valleys and solving the pieces on the common ForkJoinPool
+    public static long minRewardsParallel(int[] ratings) {
+        return minRewardsParallel(ratings, PARALLEL_THRESHOLD);
+    }
+
+    static long minRewardsParallel(int[] ratings, int threshold) {
+        if (ratings == null || ratings.length == 0) {
+            return 0;
+        }
+        return ForkJoinPool.commonPool().invoke(new SegmentTask(ratings, 0, ratings.length, threshold));
+    }
+
+    // Fork-join task for ratings[from..to), where 'from' and 'to - 1' are array ends or valleys
+    static class SegmentTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] ratings;
+        private final int from, to;
+        private final int threshold;
+
+        SegmentTask(int[] ratings, int from, int to, int threshold) {
+            this.ratings = ratings;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= threshold) return segmentTotal(ratings, from, to);
+            int valley = findValley(ratings, from, to);
+            if (valley < 0) return segmentTotal(ratings, from, to); // One long slope, nothing to split on
+
+            SegmentTask left = new SegmentTask(ratings, from, valley + 1, threshold);
+            left.fork();
+            long right = new SegmentTask(ratings, valley, to, threshold).compute();
+            return left.join() + right - 1; // The valley's single reward was counted on both sides
+        }
+    }
+
+    // Minimum rewards for ratings[from..to) treated as a standalone array
+    static long segmentTotal(int[] ratings, int from, int to) {
+        RewardCounter counter = new RewardCounter();
+        for (int i = from; i < to; i++) {
+            counter.add(ratings[i]);
+        }
+        return counter.total();
+    }
+
+    // Valley strictly inside ratings[from..to), searching right from the middle and then left, or -1
+    static int findValley(int[] ratings, int from, int to) {
+        int mid = (from + to) >>> 1;
+        for (int c = Math.max(mid, from + 1); c < to - 1; c++) {
+            if (ratings[c - 1] >= ratings[c] && ratings[c] <= ratings[c + 1]) return c;
+        }
+        for (int c = Math.min(mid - 1, to - 2); c > from; c--) {
+            if (ratings[c - 1] >= ratings[c] && ratings[c] <= ratings[c + 1]) return c;
+        }
+        return -1;
+    }
+
+    // Rewards that stay up to date while single ratings change
+    static class DynamicRewards {
+        private final int[] ratings;
+        private final int[] left;  // Length of the strictly increasing run ending at i
+        private final int[] right; // Length of the strictly decreasing run starting at i
+        private long total;        // Sum of max(left[i], right[i])
+
+        DynamicRewards(int[] ratings) {
+            int n = ratings.length;
+            this.ratings = ratings.clone();
+            this.left = new int[n];
+            this.right = new int[n];
+
+            // Same two passes as minRewards, kept around for later updates
+            for (int i = 0; i < n; i++) {
+                left[i] = i > 0 && this.ratings[i] > this.ratings[i - 1] ? left[i - 1] + 1 : 1;
+            }
+            for (int i = n - 1; i >= 0; i--) {
+                right[i] = i < n - 1 && this.ratings[i] > this.ratings[i + 1] ? right[i + 1] + 1 : 1;
+            }
+            for (int i = 0; i < n; i++) {
+                total += Math.max(left[i], right[i]);
+            }
+        }
+
+        // Change one rating and repair the runs around it
+        void updateRating(int i, int newRating) {
+            if (i < 0 || i >= ratings.length) throw new IndexOutOfBoundsException("No employee at index " + i);
+            if (ratings[i] == newRating) return;
+            ratings[i] = newRating;
+            int n = ratings.length;
+
+            // left[] can only change from i to the right; i and i + 1 always need a look because their comparison changed
+            for (int j = i; j < n; j++) {
+                int value = j > 0 && ratings[j] > ratings[j - 1] ? left[j - 1] + 1 : 1;
+                if (value == left[j] && j > i) break; // Nothing further right depends on a changed value
+                setLeft(j, value);
+            }
+
+            // right[] can only change from i to the left, same idea
+            for (int j = i; j >= 0; j--) {
+                int value = j < n - 1 && ratings[j] > ratings[j + 1] ? right[j + 1] + 1 : 1;
+                if (value == right[j] && j < i) break;
+                setRight(j, value);
+            }
+        }
+
+        private void setLeft(int j, int value) {
+            total -= Math.max(left[j], right[j]);
+            left[j] = value;
+            total += Math.max(left[j], right[j]);
+        }
+
+        private void setRight(int j, int value) {
+            total -= Math.max(left[j], right[j]);
+            right[j] = value;
+            total += Math.max(left[j], right[j]);
+        }
+
+        // Minimum rewards for the current ratings
+        long totalRewards() {
+            return total;
+        }
+    }
+
+    // Bytes read or mapped at a time by the streaming methods (a multiple of 4)
+    static final int CHUNK_BYTES = 1 << 24;
+
+    // Minimum rewards for a file of 4-byte ratings in the given byte order, mapped one chunk at a time
+    public static long minRewardsFromFile(Path file, ByteOrder order) throws IOException {
+        return minRewardsFromFile(file, order, CHUNK_BYTES);
+    }
+
+    static long minRewardsFromFile(Path file, ByteOrder order, int chunkBytes) throws IOException {
+        checkChunkBytes(chunkBytes);
+        RewardCounter counter = new RewardCounter();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size % 4 != 0) throw new IOException("File size is not a multiple of 4 bytes: " + size);
+
+            for (long pos = 0; pos < size; pos += chunkBytes) {
+                long length = Math.min(chunkBytes, size - pos);
+                IntBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, pos, length).order(order).asIntBuffer();
+                while (chunk.hasRemaining()) {
+                    counter.add(chunk.get()); // Slope state carries over between chunks
+                }
+            }
+        }
+        return counter.total();
+    }
+
+    // Minimum rewards for 4-byte ratings read from any channel, through one reusable buffer
+    public static long minRewardsFromChannel(ReadableByteChannel channel, ByteOrder order) throws IOException {
+        return minRewardsFromChannel(channel, order, CHUNK_BYTES);
+    }
+
+    static long minRewardsFromChannel(ReadableByteChannel channel, ByteOrder order, int chunkBytes) throws IOException {
+        checkChunkBytes(chunkBytes);
+        RewardCounter counter = new RewardCounter();
+        ByteBuffer buffer = ByteBuffer.allocate(chunkBytes).order(order);
+        while (channel.read(buffer) >= 0) {
+            buffer.flip();
+            while (buffer.remaining() >= 4) {
+                counter.add(buffer.getInt());
+            }
+            buffer.compact(); // Keep a rating split across two reads for the next round
+        }
+        if (buffer.position() != 0) throw new IOException("Input ends in the middle of a rating");
+        return counter.total();
+    }
+
+    // A chunk must hold whole ratings, otherwise every later chunk would start in the middle of one
+    private static void checkChunkBytes(int chunkBytes) {
+        if (chunkBytes <= 0 || chunkBytes % 4 != 0) {
+            throw new IllegalArgumentException("Chunk size must be a positive multiple of 4 bytes: " + chunkBytes);
+        }
+    }
+
+    // Slope state of the single-pass algorithm, fed one rating at a time
+    static class RewardCounter {
+        private long total; // Rewards handed out so far
+        private long up;    // Length of the current strictly increasing run
+        private long down;  // Length of the current strictly decreasing run
+        private long peak;  // 'up' value at the top of the last increasing run
+        private int prev;   // Previous rating
+        private boolean started;
+
+        void add(int rating) {
+            if (!started) {
+                started = true; // The first employee gets 1 reward
+                total = 1;
+            } else if (rating > prev) {
+                // Going up: one more than the previous employee
+                up++;
+                down = 0;
+                peak = up;
+                total += up + 1;
+            } else if (rating == prev) {
+                // Flat: the slope restarts and this employee gets 1
+                up = down = peak = 0;
+                total += 1;
+            } else {
+                // Going down: the new employee gets 1 and every employee on the way down gets one more,
+                // the peak only has to grow once the decreasing run is as tall as it
+                up = 0;
+                down++;
+                total += down + (peak >= down ? 0 : 1);
+            }
+            prev = rating;
+        }
+
+        long total() {
+            return total;
+        }
+    }
+
     public static void main(String[] args) {
         // Test Case 1
         int[] ratings1 = { 1, 0, 2 };
@@ -84,6 +366,32 @@ public class Q2a {
         // Test Case 2
         int[] ratings2 = { 1, 2, 2 };
         System.out.println(minRewards(ratings2)); // Expected output: 4
+
+        // Both test cases again with the single-pass method
+        System.out.println(minRewardsSinglePass(ratings1) + " " + minRewardsSinglePass(ratings2)); // Expected output: 5 4
+
+        // Test Case 1 split at its valley and solved in parallel
+        System.out.println(minRewardsParallel(ratings1, 1)); // Expected output: 5
+
+        // Test Case 2, then the last employee's rating goes up from 2 to 3: rewards become 1, 2, 3
+        DynamicRewards dynamic = new DynamicRewards(ratings2);
+        dynamic.updateRating(2, 3);
+        System.out.println(dynamic.totalRewards()); // Expected output: 6
+
+        // Test Case 1 streamed from a binary file, 2 ratings per chunk
+        try {
+            Path file = Path.of(System.getProperty("java.io.tmpdir"), "q2a-ratings.bin");
+            ByteBuffer bytes = ByteBuffer.allocate(4 * ratings1.length);
+            for (int rating : ratings1) bytes.putInt(rating);
+            bytes.flip();
+            try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                out.write(bytes);
+            }
+            System.out.println(minRewardsFromFile(file, ByteOrder.BIG_ENDIAN, 8)); // Expected output: 5
+        } catch (IOException e) {
+            System.out.println("Could not stream ratings: " + e.getMessage());
+        }
     }
 }
 
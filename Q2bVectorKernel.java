@@ -0,0 +1,41 @@
+/*
+Vector API row kernel for Q2b.closestLexicographicalPairSmall.
+
+For point i it computes min over j > i of |xs[j] - xs[i]| + |ys[j] - ys[i]| a whole vector of longs at a
+time: load, subtract the broadcast point, abs, add, and keep a lane-wise minimum, then reduce the lanes once
+and finish the tail with scalar code.
+
+jdk.incubator.vector is an incubator module, so this file needs it at compile time and at run time:
+    javac --add-modules jdk.incubator.vector Q2b.java Q2bVectorKernel.java
+    java --add-modules jdk.incubator.vector Q2b
+Q2b loads this class by reflection and falls back to its scalar loop when it is missing.
+ */
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+final class Q2bVectorKernel implements Q2b.RowKernel {
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    @Override
+    public long rowMin(long[] xs, long[] ys, int i) {
+        int n = xs.length;
+        long xi = xs[i], yi = ys[i];
+        LongVector px = LongVector.broadcast(SPECIES, xi);
+        LongVector py = LongVector.broadcast(SPECIES, yi);
+        LongVector min = LongVector.broadcast(SPECIES, Long.MAX_VALUE);
+
+        int j = i + 1;
+        for (int bound = j + SPECIES.loopBound(n - j); j < bound; j += SPECIES.length()) {
+            LongVector dx = LongVector.fromArray(SPECIES, xs, j).sub(px).abs();
+            LongVector dy = LongVector.fromArray(SPECIES, ys, j).sub(py).abs();
+            min = min.min(dx.add(dy));
+        }
+        long rowMin = min.reduceLanes(VectorOperators.MIN);
+
+        for (; j < n; j++) { // Tail shorter than one vector
+            rowMin = Math.min(rowMin, Math.abs(xs[j] - xi) + Math.abs(ys[j] - yi));
+        }
+        return rowMin;
+    }
+}
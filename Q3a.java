@@ -5,17 +5,19 @@ Each device has a module cost.
 
 Devices can be connected via connections with associated costs.
 
-Approach:
+Every group of connected devices needs at least one module; installing a module on device i costs modules[i - 1].
 
-Using Kruskal's algorithm to find the Minimum Spanning Tree (MST) of the connections.
+Approach:
 
-Adding the cheapest module cost to the MST cost to ensure all devices are connected.
+Add a virtual node 0 (the "well") with an edge to every device i of cost modules[i - 1]. Installing a
+module is then just another connection, and the answer is the Minimum Spanning Tree (MST) of the n + 1
+nodes, found with Kruskal's algorithm.
 
 Steps:
 
 Union-Find Data Structure: Used to manage disjoint sets and detect cycles.
 
-Sort Connections: Sort all connections by cost in ascending order.
+Sort Connections: Sort all connections and the n module edges by cost in ascending order.
 
 Build MST:
 
@@ -23,18 +25,84 @@ Iterating through sorted connections.
 
 Adding the connection to the MST if it doesn't form a cycle.
 
-Sum the costs of the selected connections.
-
-Add Module Cost: Add the cost of the cheapest module to the MST cost.
+Sum the costs of the selected connections, stopping once all n devices are joined to node 0.
 
 Result:
 
 The minimum total cost to connect all devices.
 Complexity:
-Time: O(E log E) (sorting connections + Union-Find operations).
+Time: O((E + V) log (E + V)) (sorting connections + Union-Find operations).
 
 Space: O(V) (Union-Find data structure).
+
+Adding only the single cheapest module to the MST of the connections is wrong both ways: it undercounts
+when the connections leave several components (each one needs its own module), and it overcounts when a
+module is cheaper than the connection the MST would otherwise use.
+
+Primitive path (minTotalCostPrimitive):
+
+Instead of one Edge object per connection, keep three parallel int arrays (src, dst, cost) and sort an
+array of edge indices by cost with an LSD radix sort: four passes over the bytes of the cost, with the
+sign bit flipped so negative costs still come first. Kruskal then walks the indices in that order.
+The result is the same as minTotalCost, summed as a long.
+
+Time: O(E + V) for the sort plus near-linear Union-Find work.
+
+Space: O(E) ints for the index arrays, no per-edge objects.
+
+On dense inputs (V * V <= DENSE_RATIO * E) the primitive path runs Prim's algorithm from the well instead:
+dist[v] starts at the module cost of v, and each step scans dist for the cheapest device not yet in the
+tree and relaxes its connections. That is O(V^2 + E) with no sort and no heap, which beats sorting E edges
+on complete or nearly complete graphs. The module edges are never materialized on this path.
+
+Union-Find details:
+
+The Union-Find keeps one int array: a non-negative entry is the parent, a negative entry marks a root and
+stores minus the size of its set. find uses iterative path halving, so deep trees cannot overflow the
+stack, and union attaches the smaller set under the larger one. Both Kruskal loops stop as soon as
+n - 1 edges have been added, because no later edge can join two different sets.
+
+MST engine (MstEngine.java):
+
+minTotalCost(..., strategy) hands the graph with the well to the shared engine in MstEngine.java, which
+also holds the radix sort used here. So Q3a compiles together with that file: javac Q3a.java MstEngine.java.
+
+Incremental MST (IncrementalMst):
+
+When connections arrive one at a time, the tree is kept in a link-cut tree instead of being rebuilt. It
+starts as the star of module edges around the well, which is already a spanning tree of the n + 1 nodes.
+Every tree edge is its own node in the link-cut tree, carrying its cost, so the most expensive edge on the
+path u..v is a path-max query. If that edge costs more than the new connection, it is cut and the new
+connection is linked in its place, reusing the same node slot. The tree always has exactly n edges, so no
+node is ever allocated after construction.
+
+Time: O(log V) amortized per addConnection.
+
+Space: O(V), independent of how many connections have been offered.
+
+External-memory approach (minTotalCostFromFile):
+
+For edge sets too large for the heap, connections come from a binary file of 12-byte records
+(device1, device2, cost as ints, devices 1-indexed). The file is read through a FileChannel in runs of
+RUN_EDGES records; each run is radix-sorted by cost and written to a temporary run file in a directory the
+caller chooses (run files add up to the size of the input). Runs are merged with a PriorityQueue keyed by
+each run's current cost, at most MAX_FAN_IN at a time: while there are too many, groups of MAX_FAN_IN runs
+are merged into one longer run file, level by level. The last merge takes the remaining runs plus the
+module edges of the well as a small in-memory run and feeds the same Union-Find loop as Kruskal.
+Every open run is read through its own MERGE_BUFFER_BYTES buffer, so at most MAX_FAN_IN + 1 files are open
+and only the O(V) Union-Find array, one sort buffer while writing runs and MAX_FAN_IN + 1 merge buffers are
+ever resident. Run files are deleted as soon as they are merged, and all of them when the method returns.
+
+Time: O(E) for sorting runs, O(E log R) for merging R runs, with log_MAX_FAN_IN(R) passes over the data.
  */
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*; // Importing necessary classes from the Java utility package
 
 public class Q3a { // Define the main class Qno3A
@@ -54,44 +122,49 @@ public class Q3a { // Define the main class Qno3A
 
     // Define the UnionFind class for Union-Find data structure
     static class UnionFind {
-        int[] parent; // Array to keep track of the parent of each device
-        int[] rank;   // Array to keep track of the rank (depth) of each device's tree
+        // parent[u] >= 0 is the parent of device u; for a root, parent[u] = -(size of its set)
+        int[] parent;
 
         // Constructor to initialize the UnionFind structure
         public UnionFind(int n) {
-            parent = new int[n]; 
-            rank = new int[n];
-            for (int i = 0; i < n; i++) {
-                parent[i] = i; // Initially, each device is its own parent
-                rank[i] = 0;    // Initially, all ranks are 0
-            }
+            parent = new int[n];
+            Arrays.fill(parent, -1); // Initially, each device is its own set of size 1
         }
 
         // Find method to find the representative (root) of the set containing device u
         public int find(int u) {
-            if (parent[u] != u) {
-                parent[u] = find(parent[u]); // Path compression: make the tree flat
+            // Iterative path halving: point every other node on the way to its grandparent, no recursion
+            while (parent[u] >= 0) {
+                int p = parent[u];
+                if (parent[p] >= 0) {
+                    parent[u] = parent[p];
+                }
+                u = parent[u];
             }
-            return parent[u]; // Return the root of u
+            return u; // Return the root of u
         }
 
         // Union method to join the sets of u and v
         public boolean union(int u, int v) {
             int rootU = find(u); // Find the root of u
             int rootV = find(v); // Find the root of v
-            if (rootU != rootV) { // If they are in different sets, union them
-                // Union by rank: attach the smaller tree under the larger tree
-                if (rank[rootU] > rank[rootV]) {
-                    parent[rootV] = rootU; 
-                } else if (rank[rootU] < rank[rootV]) {
-                    parent[rootU] = rootV;
-                } else {
-                    parent[rootV] = rootU;
-                    rank[rootU]++; // Increase rank if trees are of the same size
-                }
-                return true; // Successfully unioned
+            if (rootU == rootV) {
+                return false; // They are already in the same set
             }
-            return false; // They are already in the same set
+            // Union by size: attach the smaller set under the larger one
+            if (parent[rootU] > parent[rootV]) { // Sizes are negative, so this means rootU's set is smaller
+                int t = rootU;
+                rootU = rootV;
+                rootV = t;
+            }
+            parent[rootU] += parent[rootV]; // Add the sizes
+            parent[rootV] = rootU;
+            return true; // Successfully unioned
+        }
+
+        // Number of devices in the set containing u
+        public int size(int u) {
+            return -parent[find(u)];
         }
     }
 
@@ -99,31 +172,526 @@ public class Q3a { // Define the main class Qno3A
     public static int minTotalCost(int n, int[] modules, int[][] connections) {
         List<Edge> edges = new ArrayList<>(); // List to hold all the edges
 
-        // Convert the connections into Edge objects
+        // Node 0 is the well: connecting device i to it means installing its module
+        for (int i = 1; i <= n; i++) {
+            edges.add(new Edge(0, i, modules[i - 1]));
+        }
+
+        // Convert the connections into Edge objects (devices keep their 1-indexed numbers)
         for (int[] connection : connections) {
-            edges.add(new Edge(connection[0] - 1, connection[1] - 1, connection[2])); // Convert to 0-indexed
+            edges.add(new Edge(connection[0], connection[1], connection[2]));
         }
 
         // Sort the edges in increasing order of their cost (for Kruskal's algorithm)
         edges.sort(Comparator.comparingInt(edge -> edge.cost));
 
-        UnionFind uf = new UnionFind(n); // Initialize UnionFind for n devices
+        UnionFind uf = new UnionFind(n + 1); // Initialize UnionFind for the well and n devices
         int totalCost = 0; // Variable to track the total cost of the minimum spanning tree (MST)
+        int unions = 0; // Number of edges added so far
 
         // Apply Kruskal's algorithm: process edges in increasing cost order
         for (Edge edge : edges) {
             if (uf.union(edge.device1, edge.device2)) { // If the devices are in different sets, union them
                 totalCost += edge.cost; // Add the cost of this edge to the total cost
+                if (++unions == n) break; // Every device is joined to the well, skip the remaining edges
             }
         }
 
-        // Add the cost of the cheapest module to the total cost
-        int modulesCost = Arrays.stream(modules).min().getAsInt(); // Find the minimum cost of modules
-        totalCost += modulesCost; // Add the module cost to the total cost
-
         return totalCost; // Return the total cost
     }
 
+    // Same cost as minTotalCost, using parallel int arrays and a radix sort instead of Edge objects
+    public static long minTotalCostPrimitive(int n, int[] modules, int[][] connections) {
+        int m = connections.length;
+        int[] src = new int[m], dst = new int[m], cost = new int[m];
+        for (int e = 0; e < m; e++) {
+            src[e] = connections[e][0];
+            dst[e] = connections[e][1];
+            cost[e] = connections[e][2];
+        }
+        return minTotalCostPrimitive(n, modules, src, dst, cost);
+    }
+
+    // Prim's O(V^2) scan is used once V * V is at most this many times the number of connections
+    static final int DENSE_RATIO = 8;
+
+    // Edge e connects devices src[e] and dst[e] (1-indexed) at cost[e]
+    public static long minTotalCostPrimitive(int n, int[] modules, int[] src, int[] dst, int[] cost) {
+        if ((long) n * n <= (long) DENSE_RATIO * cost.length) {
+            return densePrim(n, modules, src, dst, cost);
+        }
+
+        int[][] graph = withWell(n, modules, src, dst, cost);
+        int[] wellSrc = graph[0], wellDst = graph[1], wellCost = graph[2];
+        int[] order = MstEngine.radixSortByCost(wellCost); // Edge indices in increasing order of cost
+
+        UnionFind uf = new UnionFind(n + 1);
+        long totalCost = 0;
+        int unions = 0;
+        for (int e : order) {
+            if (uf.union(wellSrc[e], wellDst[e])) {
+                totalCost += wellCost[e];
+                if (++unions == n) break; // Every device is joined to the well
+            }
+        }
+        return totalCost;
+    }
+
+    // Prim's algorithm from the well over adjacency arrays, picking the next device by a linear scan
+    static long densePrim(int n, int[] modules, int[] src, int[] dst, int[] cost) {
+        int m = cost.length;
+        int[] start = new int[n + 2]; // Incident edges of device v are adj[start[v] .. start[v + 1])
+        for (int e = 0; e < m; e++) {
+            start[src[e] + 1]++;
+            start[dst[e] + 1]++;
+        }
+        for (int v = 0; v <= n; v++) start[v + 1] += start[v];
+        int[] fill = Arrays.copyOf(start, n + 1);
+        int[] adj = new int[2 * m];
+        for (int e = 0; e < m; e++) {
+            adj[fill[src[e]]++] = e;
+            adj[fill[dst[e]]++] = e;
+        }
+
+        long[] dist = new long[n + 1]; // Cheapest known way to attach device v: its module or a connection
+        boolean[] inTree = new boolean[n + 1];
+        for (int v = 1; v <= n; v++) dist[v] = modules[v - 1];
+
+        long totalCost = 0;
+        for (int step = 0; step < n; step++) {
+            int u = 0;
+            for (int v = 1; v <= n; v++) {
+                if (!inTree[v] && (u == 0 || dist[v] < dist[u])) u = v;
+            }
+            inTree[u] = true;
+            totalCost += dist[u];
+            for (int i = start[u]; i < start[u + 1]; i++) {
+                int e = adj[i];
+                int w = src[e] == u ? dst[e] : src[e];
+                if (!inTree[w] && cost[e] < dist[w]) dist[w] = cost[e];
+            }
+        }
+        return totalCost;
+    }
+
+    // The connections followed by an edge (0, i, modules[i - 1]) for every device i, as {src, dst, cost}
+    static int[][] withWell(int n, int[] modules, int[] src, int[] dst, int[] cost) {
+        int m = cost.length;
+        int[] wellSrc = Arrays.copyOf(src, m + n);
+        int[] wellDst = Arrays.copyOf(dst, m + n);
+        int[] wellCost = Arrays.copyOf(cost, m + n);
+        for (int i = 1; i <= n; i++) {
+            wellDst[m + i - 1] = i; // wellSrc is already 0 there
+            wellCost[m + i - 1] = modules[i - 1];
+        }
+        return new int[][] {wellSrc, wellDst, wellCost};
+    }
+
+    // Same cost as minTotalCostPrimitive, with the spanning tree built by the chosen MST strategy
+    public static long minTotalCost(int n, int[] modules, int[][] connections, MstEngine.Strategy strategy) {
+        int m = connections.length;
+        int[] src = new int[m], dst = new int[m], cost = new int[m];
+        for (int e = 0; e < m; e++) {
+            src[e] = connections[e][0];
+            dst[e] = connections[e][1];
+            cost[e] = connections[e][2];
+        }
+        int[][] graph = withWell(n, modules, src, dst, cost);
+        long totalCost = 0;
+        for (int e : MstEngine.spanningForest(n + 1, graph[0], graph[1], graph[2], strategy)) {
+            totalCost += graph[2][e];
+        }
+        return totalCost;
+    }
+
+    // Minimum total cost maintained while connections are added one at a time
+    public static final class IncrementalMst {
+        // Link-cut tree over 1-based node ids; 0 is the null node. Device v (0 = well) is node v + 1,
+        // and tree edge slot j is node n + 2 + j.
+        private final int n;
+        private final int[] left, right, parent;
+        private final boolean[] flip; // Children of this node still have to be swapped
+        private final long[] value;   // Cost of an edge node; Long.MIN_VALUE for device nodes
+        private final int[] max;      // Node with the largest value in this node's splay subtree
+        private final int[] edgeU, edgeV; // Devices joined by each edge slot
+        private final int[] stack;
+        private long total;
+
+        public IncrementalMst(int n, int[] modules) {
+            if (modules.length < n) {
+                throw new IllegalArgumentException("Need a module cost for each of the " + n + " devices");
+            }
+            this.n = n;
+            int size = 2 * n + 2;
+            left = new int[size];
+            right = new int[size];
+            parent = new int[size];
+            flip = new boolean[size];
+            value = new long[size];
+            max = new int[size];
+            edgeU = new int[n];
+            edgeV = new int[n];
+            stack = new int[size];
+            for (int x = 0; x < size; x++) {
+                value[x] = Long.MIN_VALUE;
+                max[x] = x;
+            }
+            max[0] = 0;
+
+            // Seed with the module edges: device i hangs off the well at cost modules[i - 1]
+            for (int i = 1; i <= n; i++) {
+                int e = edgeNode(i - 1);
+                value[e] = modules[i - 1];
+                edgeU[i - 1] = 0;
+                edgeV[i - 1] = i;
+                link(e, 1);
+                link(e, i + 1);
+                total += modules[i - 1];
+            }
+        }
+
+        // Offers a connection between devices u and v (1-indexed) and returns the new minimum total cost
+        public long addConnection(int u, int v, int cost) {
+            if (u < 1 || u > n || v < 1 || v > n) {
+                throw new IllegalArgumentException("Devices must be in 1.." + n + ": " + u + ", " + v);
+            }
+            if (u == v) {
+                return total;
+            }
+            makeRoot(u + 1);
+            access(v + 1);
+            splay(v + 1);
+            int e = max[v + 1]; // Most expensive edge on the cycle the new connection would close
+            if (value[e] <= cost) {
+                return total;
+            }
+
+            int slot = e - n - 2;
+            cut(e, edgeU[slot] + 1);
+            cut(e, edgeV[slot] + 1);
+            total += cost - value[e];
+
+            // Reuse the freed node for the new connection
+            value[e] = cost;
+            max[e] = e;
+            flip[e] = false;
+            edgeU[slot] = u;
+            edgeV[slot] = v;
+            link(e, u + 1);
+            link(e, v + 1);
+            return total;
+        }
+
+        public long totalCost() {
+            return total;
+        }
+
+        private int edgeNode(int slot) {
+            return n + 2 + slot;
+        }
+
+        private void link(int x, int y) {
+            makeRoot(x);
+            parent[x] = y;
+        }
+
+        // Removes the tree edge between adjacent nodes x and y
+        private void cut(int x, int y) {
+            makeRoot(x);
+            access(y);
+            splay(y);
+            left[y] = 0; // x is the only node before y on the root path
+            parent[x] = 0;
+            pull(y);
+        }
+
+        private void makeRoot(int x) {
+            access(x);
+            splay(x);
+            flip[x] = !flip[x];
+        }
+
+        private void access(int x) {
+            for (int last = 0, y = x; y != 0; last = y, y = parent[y]) {
+                splay(y);
+                right[y] = last;
+                pull(y);
+            }
+        }
+
+        private boolean isRoot(int x) {
+            int p = parent[x];
+            return p == 0 || (left[p] != x && right[p] != x);
+        }
+
+        private void splay(int x) {
+            // Push pending flips down from the splay root without recursion
+            int top = 0;
+            stack[top++] = x;
+            for (int y = x; !isRoot(y); y = parent[y]) stack[top++] = parent[y];
+            while (top > 0) push(stack[--top]);
+
+            while (!isRoot(x)) {
+                int p = parent[x];
+                if (!isRoot(p)) {
+                    int g = parent[p];
+                    rotate((left[g] == p) == (left[p] == x) ? p : x); // Zig-zig or zig-zag
+                }
+                rotate(x);
+            }
+        }
+
+        private void rotate(int x) {
+            int p = parent[x], g = parent[p];
+            if (!isRoot(p)) {
+                if (left[g] == p) left[g] = x;
+                else right[g] = x;
+            }
+            parent[x] = g;
+            if (left[p] == x) {
+                left[p] = right[x];
+                if (right[x] != 0) parent[right[x]] = p;
+                right[x] = p;
+            } else {
+                right[p] = left[x];
+                if (left[x] != 0) parent[left[x]] = p;
+                left[x] = p;
+            }
+            parent[p] = x;
+            pull(p);
+            pull(x);
+        }
+
+        private void push(int x) {
+            if (!flip[x]) return;
+            int t = left[x];
+            left[x] = right[x];
+            right[x] = t;
+            if (left[x] != 0) flip[left[x]] = !flip[left[x]];
+            if (right[x] != 0) flip[right[x]] = !flip[right[x]];
+            flip[x] = false;
+        }
+
+        private void pull(int x) {
+            int m = x;
+            if (value[max[left[x]]] > value[m]) m = max[left[x]];
+            if (value[max[right[x]]] > value[m]) m = max[right[x]];
+            max[x] = m;
+        }
+    }
+
+    // Records sorted in memory per run by minTotalCostFromFile, bytes buffered per run while merging, and the
+    // most runs merged at once
+    static final int RUN_EDGES = 1 << 20;
+    static final int MERGE_BUFFER_BYTES = 12 << 12;
+    static final int MAX_FAN_IN = 128;
+    private static final int RECORD_BYTES = 12; // device1, device2, cost
+
+    // Minimum total cost for connections stored as 12-byte records in the given byte order, with run files in
+    // the default temporary directory
+    public static long minTotalCostFromFile(int n, int[] modules, Path edges, ByteOrder order) throws IOException {
+        return minTotalCostFromFile(n, modules, edges, order, Path.of(System.getProperty("java.io.tmpdir")));
+    }
+
+    // Same, with the run files written to tempDir
+    public static long minTotalCostFromFile(int n, int[] modules, Path edges, ByteOrder order, Path tempDir)
+            throws IOException {
+        return minTotalCostFromFile(n, modules, edges, order, tempDir, RUN_EDGES, MERGE_BUFFER_BYTES, MAX_FAN_IN);
+    }
+
+    static long minTotalCostFromFile(int n, int[] modules, Path edges, ByteOrder order, Path tempDir, int runEdges,
+            int bufferBytes, int fanIn) throws IOException {
+        if (fanIn < 2) throw new IllegalArgumentException("Fan-in must be at least 2: " + fanIn);
+        List<Path> runFiles = new ArrayList<>(); // Run files on disk, deleted at the end whatever happens
+        List<EdgeRun> runs = new ArrayList<>();
+        try {
+            writeSortedRuns(n, edges, order, tempDir, runEdges, runFiles);
+
+            // Merge level by level until the file runs and the well run fit into one merge
+            ArrayDeque<Path> pending = new ArrayDeque<>(runFiles);
+            while (pending.size() > fanIn - 1) {
+                List<Path> group = new ArrayList<>();
+                while (group.size() < fanIn && !pending.isEmpty()) group.add(pending.poll());
+                Path merged = Files.createTempFile(tempDir, "q3a-run", ".bin");
+                runFiles.add(merged);
+                mergeRuns(group, merged, order, bufferBytes);
+                for (Path file : group) {
+                    Files.delete(file);
+                    runFiles.remove(file);
+                }
+                pending.add(merged); // Joins the next level
+            }
+
+            runs.add(new WellRun(n, modules));
+            for (Path file : pending) {
+                runs.add(new FileRun(file, order, bufferBytes));
+            }
+            PriorityQueue<EdgeRun> heap = mergeHeap(runs);
+
+            UnionFind uf = new UnionFind(n + 1);
+            long totalCost = 0;
+            int unions = 0;
+            while (unions < n && !heap.isEmpty()) { // Stop reading once every device is joined to the well
+                EdgeRun run = heap.poll();
+                if (uf.union(run.src, run.dst)) {
+                    totalCost += run.cost;
+                    unions++;
+                }
+                if (run.next()) heap.add(run);
+            }
+            return totalCost;
+        } finally {
+            for (EdgeRun run : runs) run.close();
+            for (Path file : runFiles) Files.deleteIfExists(file);
+        }
+    }
+
+    // k-way merge: the run with the cheapest current edge is always at the head
+    private static PriorityQueue<EdgeRun> mergeHeap(List<EdgeRun> runs) throws IOException {
+        PriorityQueue<EdgeRun> heap = new PriorityQueue<>(Comparator.comparingInt(run -> run.cost));
+        for (EdgeRun run : runs) {
+            if (run.next()) heap.add(run);
+        }
+        return heap;
+    }
+
+    // Merges sorted run files into one sorted run file 'out', written through one buffer
+    private static void mergeRuns(List<Path> group, Path out, ByteOrder order, int bufferBytes) throws IOException {
+        List<EdgeRun> runs = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(out, StandardOpenOption.WRITE)) {
+            for (Path file : group) {
+                runs.add(new FileRun(file, order, bufferBytes));
+            }
+            PriorityQueue<EdgeRun> heap = mergeHeap(runs);
+            ByteBuffer buffer = ByteBuffer.allocate(Math.max(RECORD_BYTES, bufferBytes)).order(order);
+            while (!heap.isEmpty()) {
+                EdgeRun run = heap.poll();
+                if (buffer.remaining() < RECORD_BYTES) writeFully(channel, buffer);
+                buffer.putInt(run.src).putInt(run.dst).putInt(run.cost);
+                if (run.next()) heap.add(run);
+            }
+            writeFully(channel, buffer);
+        } finally {
+            for (EdgeRun run : runs) run.close();
+        }
+    }
+
+    // Writes out everything in the buffer and clears it for the next records
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    // Splits the edge file into sorted run files of at most runEdges records each
+    private static void writeSortedRuns(int n, Path edges, ByteOrder order, Path tempDir, int runEdges,
+            List<Path> runFiles) throws IOException {
+        try (FileChannel in = FileChannel.open(edges, StandardOpenOption.READ)) {
+            long size = in.size();
+            if (size % RECORD_BYTES != 0) throw new IOException("File size is not a multiple of 12 bytes: " + size);
+
+            // One buffer is used to read a run and then to write it back sorted
+            ByteBuffer buffer = ByteBuffer.allocate(runEdges * RECORD_BYTES).order(order);
+            int[] src = new int[runEdges], dst = new int[runEdges], cost = new int[runEdges];
+            while (true) {
+                buffer.clear();
+                while (buffer.hasRemaining() && in.read(buffer) >= 0) {
+                    // Fill the buffer or reach the end of the file
+                }
+                buffer.flip();
+                int count = buffer.remaining() / RECORD_BYTES;
+                if (count == 0) break;
+                for (int e = 0; e < count; e++) {
+                    src[e] = buffer.getInt();
+                    dst[e] = buffer.getInt();
+                    cost[e] = buffer.getInt();
+                    if (src[e] < 1 || src[e] > n || dst[e] < 1 || dst[e] > n) {
+                        throw new IOException("Device out of range 1.." + n + ": " + src[e] + ", " + dst[e]);
+                    }
+                }
+
+                Path file = Files.createTempFile(tempDir, "q3a-run", ".bin");
+                runFiles.add(file);
+                buffer.clear();
+                for (int e : MstEngine.radixSortByCost(cost, count)) {
+                    buffer.putInt(src[e]).putInt(dst[e]).putInt(cost[e]);
+                }
+                try (FileChannel out = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    writeFully(out, buffer);
+                }
+            }
+        }
+    }
+
+    // A stream of edges in increasing order of cost; next() moves to the following edge
+    private abstract static class EdgeRun implements Closeable {
+        int src, dst, cost; // Current edge
+
+        abstract boolean next() throws IOException;
+
+        @Override
+        public void close() throws IOException {
+        }
+    }
+
+    // The module edges (0, i, modules[i - 1]), sorted in memory
+    private static final class WellRun extends EdgeRun {
+        private final int[] modules;
+        private final int[] order;
+        private int i;
+
+        WellRun(int n, int[] modules) {
+            this.modules = modules;
+            this.order = MstEngine.radixSortByCost(modules, n);
+        }
+
+        @Override
+        boolean next() {
+            if (i == order.length) return false;
+            int device = order[i++];
+            src = 0;
+            dst = device + 1;
+            cost = modules[device];
+            return true;
+        }
+    }
+
+    // A sorted run file, read sequentially through one buffer
+    private static final class FileRun extends EdgeRun {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        FileRun(Path file, ByteOrder order, int bufferBytes) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            this.buffer = ByteBuffer.allocate(bufferBytes).order(order);
+            buffer.limit(0); // Nothing read yet
+        }
+
+        @Override
+        boolean next() throws IOException {
+            if (buffer.remaining() < RECORD_BYTES) {
+                buffer.compact(); // Keep a record split across two reads
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                    // Refill the buffer or reach the end of the run
+                }
+                buffer.flip();
+                if (buffer.remaining() < RECORD_BYTES) {
+                    if (buffer.hasRemaining()) throw new IOException("Run ends in the middle of a record");
+                    return false;
+                }
+            }
+            src = buffer.getInt();
+            dst = buffer.getInt();
+            cost = buffer.getInt();
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
     // Main method to run the program
     public static void main(String[] args) {
         int n = 3; // Number of devices
@@ -134,9 +702,54 @@ public class Q3a { // Define the main class Qno3A
         int result = minTotalCost(n, modules, connections);
         
         // Print the result
-        System.out.println("Minimum total cost to connect all devices: " + result); // Expected output: 4
+        System.out.println("Minimum total cost to connect all devices: " + result); // Expected output: 3
+
+        // Same devices through the primitive path
+        System.out.println("Minimum total cost (primitive): " + minTotalCostPrimitive(n, modules, connections));
+
+        // Every MST strategy gives the same cost
+        for (MstEngine.Strategy strategy : MstEngine.Strategy.values()) {
+            System.out.println("Minimum total cost (" + strategy + "): " + minTotalCost(n, modules, connections, strategy));
+        }
+
+        // Two separate groups each need a module: {1, 2} and {3}
+        int[][] split = {{1, 2, 1}};
+        System.out.println("Minimum total cost (two groups): " + minTotalCost(n, modules, split)); // Expected output: 4
+
+        // The same connections offered one at a time
+        IncrementalMst incremental = new IncrementalMst(n, modules); // Starts at 5: every device gets a module
+        for (int[] connection : connections) {
+            incremental.addConnection(connection[0], connection[1], connection[2]);
+        }
+        System.out.println("Minimum total cost (incremental): " + incremental.totalCost()); // Expected output: 3
+
+        // The same connections streamed from a binary file, one record per sorted run, merged two at a time
+        try {
+            Path file = Path.of(System.getProperty("java.io.tmpdir"), "q3a-connections.bin");
+            ByteBuffer bytes = ByteBuffer.allocate(RECORD_BYTES * connections.length);
+            for (int[] connection : connections) {
+                bytes.putInt(connection[0]).putInt(connection[1]).putInt(connection[2]);
+            }
+            bytes.flip();
+            try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                out.write(bytes);
+            }
+            long fromFile = minTotalCostFromFile(n, modules, file, ByteOrder.BIG_ENDIAN, file.getParent(), 1,
+                    RECORD_BYTES, 2);
+            System.out.println("Minimum total cost (from file): " + fromFile); // Expected output: 3
+        } catch (IOException e) {
+            System.out.println("Could not stream connections: " + e.getMessage());
+        }
     }
 }
 
 // output
-// Minimum total cost to connect all devices: 3
\ No newline at end of file
+// Minimum total cost to connect all devices: 3
+// Minimum total cost (primitive): 3
+// Minimum total cost (KRUSKAL): 3
+// Minimum total cost (PRIM): 3
+// Minimum total cost (BORUVKA): 3
+// Minimum total cost (two groups): 4
+// Minimum total cost (incremental): 3
+// Minimum total cost (from file): 3
\ No newline at end of file
@@ -3,74 +3,106 @@
     Functionality:
     Queue: Use a queue to store the sequence of falling blocks.
     Stack: Use a stack to represent the current state of the game board.
+    Board: each row is an int bitmask (bit j = column j) with colours in a separate byte plane, so a move
+    check is one shift-and-AND per shape row and a full row is simply row == fullMask.
  */
 
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
 import java.util.Random;
 import java.util.Stack;
 import javax.swing.*;
 
  class GameBoard {
+    // Columns sit at bits WALL..WALL+width-1 of the 64-bit row used by canMove, with wall bits on both
+    // sides, so shapes up to WALL columns wide can be tested against either edge
+    private static final int WALL = 16;
+    private static final int MAX_WIDTH = 32;
+
     private int width, height;
-    private Color[][] grid;
+    private final int fullMask;  // Bits 0..width-1: the value of a completed row
+    private final long wallBits; // Every bit of a walled row outside the board's columns
+    private int[] rows;          // Bit j of rows[i] is set when cell (i, j) is filled
+    private byte[] colors;       // Palette index of cell (i, j) at i * width + j; 0 is empty (black)
+    private List<Color> palette = new ArrayList<>();
+    private Color[][] grid;      // Color view for painting, rebuilt only after the board changes
+    private boolean gridDirty = true;
     private Stack<Block> stack;
     private int rowsCleared = 0;
 
     public GameBoard(int width, int height) {
+        if (width < 1 || width > MAX_WIDTH) {
+            throw new IllegalArgumentException("Board width must be between 1 and " + MAX_WIDTH + ": " + width);
+        }
         this.width = width;
         this.height = height;
+        this.fullMask = width == MAX_WIDTH ? -1 : (1 << width) - 1;
+        this.wallBits = ~((fullMask & 0xFFFFFFFFL) << WALL);
+        this.rows = new int[height];
+        this.colors = new byte[height * width];
         this.grid = new Color[height][width];
         this.stack = new Stack<>();
-        initializeGrid();
-    }
-
-    private void initializeGrid() {
-        for (int i = 0; i < height; i++) {
-            for (int j = 0; j < width; j++) {
-                grid[i][j] = Color.BLACK;
-            }
-        }
+        palette.add(Color.BLACK);
     }
 
     public boolean canMove(Block block, int dx, int dy) {
-        int[][] shape = block.getShape();
+        int[] masks = block.getRowMasks();
         int x = block.getX() + dx;
         int y = block.getY() + dy;
+        if (x < -WALL || x >= width) {
+            return false; // Every non-empty shape would leave the board
+        }
 
-        for (int i = 0; i < shape.length; i++) {
-            for (int j = 0; j < shape[i].length; j++) {
-                if (shape[i][j] != 0) {
-                    int newX = x + j;
-                    int newY = y + i;
-                    if (newX < 0 || newX >= width || newY >= height || (newY >= 0 && grid[newY][newX] != Color.BLACK)) {
-                        return false;
-                    }
-                }
+        for (int i = 0; i < masks.length; i++) {
+            // Walls and floor are set bits, so one AND covers both bounds and filled cells
+            if (((long) masks[i] << (x + WALL) & walledRow(y + i)) != 0) {
+                return false;
             }
         }
         return true;
     }
 
+    // Row i shifted up by WALL with the walls set; rows below the board are solid, rows above it are open
+    private long walledRow(int i) {
+        if (i >= height) return -1L;
+        if (i < 0) return wallBits;
+        return (rows[i] & 0xFFFFFFFFL) << WALL | wallBits;
+    }
+
     public void placeBlock(Block block) {
-        int[][] shape = block.getShape();
+        int[] masks = block.getRowMasks();
         int x = block.getX();
         int y = block.getY();
+        byte color = colorIndex(block.getColor());
 
-        for (int i = 0; i < shape.length; i++) {
-            for (int j = 0; j < shape[i].length; j++) {
-                if (shape[i][j] != 0) {
-                    grid[y + i][x + j] = block.getColor();
-                }
+        for (int i = 0; i < masks.length; i++) {
+            int bits = masks[i] << x;
+            rows[y + i] |= bits;
+            for (int b = bits; b != 0; b &= b - 1) {
+                colors[(y + i) * width + Integer.numberOfTrailingZeros(b)] = color;
             }
         }
+        gridDirty = true;
         stack.push(block);
         checkCompletedRows();
     }
 
+    private byte colorIndex(Color color) {
+        int index = palette.indexOf(color);
+        if (index < 0) {
+            if (palette.size() == 256) throw new IllegalStateException("More than 255 block colors");
+            index = palette.size();
+            palette.add(color);
+        }
+        return (byte) index;
+    }
+
     public int getRowsCleared() {
         return rowsCleared;
     }
@@ -82,14 +114,7 @@ import javax.swing.*;
 
     private void checkCompletedRows() {
         for (int i = 0; i < height; i++) {
-            boolean completed = true;
-            for (int j = 0; j < width; j++) {
-                if (grid[i][j] == Color.BLACK) {
-                    completed = false;
-                    break;
-                }
-            }
-            if (completed) {
+            if (rows[i] == fullMask) {
                 removeRow(i);
                 rowsCleared++;
                 i--; // Check the same row again after shifting down
@@ -98,37 +123,58 @@ import javax.swing.*;
     }
 
     private void removeRow(int row) {
-        for (int i = row; i > 0; i--) {
-            for (int j = 0; j < width; j++) {
-                grid[i][j] = grid[i - 1][j];
-            }
-        }
-        for (int j = 0; j < width; j++) {
-            grid[0][j] = Color.BLACK;
-        }
+        System.arraycopy(rows, 0, rows, 1, row);
+        rows[0] = 0;
+        System.arraycopy(colors, 0, colors, width, row * width);
+        Arrays.fill(colors, 0, width, (byte) 0);
+        gridDirty = true;
     }
 
     public Color[][] getGrid() {
+        if (gridDirty) {
+            for (int i = 0; i < height; i++) {
+                for (int j = 0; j < width; j++) {
+                    grid[i][j] = palette.get(colors[i * width + j] & 0xFF);
+                }
+            }
+            gridDirty = false;
+        }
         return grid;
     }
 }
 
 class Block {
     private int[][] shape;
+    private int[] rowMasks; // Bit j of rowMasks[i] is set when shape[i][j] != 0
     private Color color;
     private int x, y;
 
     public Block(int[][] shape, Color color) {
         this.shape = shape;
+        this.rowMasks = toRowMasks(shape);
         this.color = color;
         this.x = 0;
         this.y = 0;
     }
 
+    private static int[] toRowMasks(int[][] shape) {
+        int[] masks = new int[shape.length];
+        for (int i = 0; i < shape.length; i++) {
+            for (int j = 0; j < shape[i].length; j++) {
+                if (shape[i][j] != 0) masks[i] |= 1 << j;
+            }
+        }
+        return masks;
+    }
+
     public int[][] getShape() {
         return shape;
     }
 
+    public int[] getRowMasks() {
+        return rowMasks;
+    }
+
     public Color getColor() {
         return color;
     }
@@ -169,6 +215,7 @@ class Block {
             }
         }
         shape = rotatedShape;
+        rowMasks = toRowMasks(shape);
     }
 }
 
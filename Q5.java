@@ -1,3 +1,9 @@
+/*
+Network optimization: connections with a cost and bandwidth, a minimum cost spanning tree and shortest paths.
+
+Graph.findMinimumSpanningTree uses the shared engine in MstEngine.java, so this file compiles together
+with it: javac Q5.java MstEngine.java (java Q5.java alone no longer compiles).
+ */
 import java.awt.*;
 import java.util.*;
 import java.util.List;
@@ -103,27 +109,39 @@ class Q5 extends JFrame {
 
 class Graph {
     private Map<String, List<Edge>> adjList = new HashMap<>();
+    private List<Edge> edges = new ArrayList<>(); // Each connection once, in the direction it was added
 
     public void addEdge(String node1, String node2, int cost, int bandwidth) {
         adjList.putIfAbsent(node1, new ArrayList<>());
         adjList.putIfAbsent(node2, new ArrayList<>());
-        adjList.get(node1).add(new Edge(node1, node2, cost, bandwidth));
+        Edge edge = new Edge(node1, node2, cost, bandwidth);
+        adjList.get(node1).add(edge);
         adjList.get(node2).add(new Edge(node2, node1, cost, bandwidth));
+        edges.add(edge);
     }
 
     public List<Edge> findMinimumSpanningTree() {
-        List<Edge> edges = new ArrayList<>();
-        for (List<Edge> list : adjList.values()) {
-            edges.addAll(list);
+        return findMinimumSpanningTree(MstEngine.Strategy.KRUSKAL);
+    }
+
+    public List<Edge> findMinimumSpanningTree(MstEngine.Strategy strategy) {
+        // Number the nodes 0..n-1 and hand the edges to the shared MST engine as int arrays
+        Map<String, Integer> ids = new HashMap<>();
+        for (String node : adjList.keySet()) {
+            ids.put(node, ids.size());
+        }
+        int m = edges.size();
+        int[] src = new int[m], dst = new int[m], cost = new int[m];
+        for (int e = 0; e < m; e++) {
+            Edge edge = edges.get(e);
+            src[e] = ids.get(edge.node1);
+            dst[e] = ids.get(edge.node2);
+            cost[e] = edge.cost;
         }
-        edges.sort(Comparator.comparingInt(e -> e.cost));
 
         List<Edge> mst = new ArrayList<>();
-        UnionFind uf = new UnionFind(adjList.keySet());
-        for (Edge edge : edges) {
-            if (uf.union(edge.node1, edge.node2)) {
-                mst.add(edge);
-            }
+        for (int e : MstEngine.spanningForest(ids.size(), src, dst, cost, strategy)) {
+            mst.add(edges.get(e));
         }
         return mst;
     }
@@ -211,29 +229,3 @@ class Node {
         this.cost = cost;
     }
 }
-
-class UnionFind {
-    private Map<String, String> parent = new HashMap<>();
-
-    public UnionFind(Set<String> nodes) {
-        for (String node : nodes)
-            parent.put(node, node);
-    }
-
-    public String find(String node) {
-        if (!parent.get(node).equals(node)) {
-            parent.put(node, find(parent.get(node)));
-        }
-        return parent.get(node);
-    }
-
-    public boolean union(String node1, String node2) {
-        String root1 = find(node1);
-        String root2 = find(node2);
-        if (!root1.equals(root2)) {
-            parent.put(root1, root2);
-            return true;
-        }
-        return false;
-    }
-}
\ No newline at end of file